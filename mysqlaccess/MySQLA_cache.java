@@ -1,141 +1,623 @@
 package com.company.mysqlaccess;
 
 import com.company.mysqlaccess.models.MySQLACache;
+import com.company.mysqlaccess.models.MySQLACachePolicy;
+import com.company.mysqlaccess.models.MySQLACacheStats;
+import com.company.mysqlaccess.models.Metrics;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class MySQLA_cache {
 
-    private static Map<String, Map<String, Integer>> cacheable = new HashMap<>();
-    private static List<MySQLACache> cache = new ArrayList<>();
+    // ---> Expiration time and limits, per database and table.
+    private static Map<String, Map<String, MySQLACachePolicy>> cacheable = new ConcurrentHashMap<>();
+    // ---> Cached results and statistics, per database and table.
+    private static Map<String, Map<String, TableCache>> cache = new ConcurrentHashMap<>();
+
+    // ---> Limits for the whole cache, zero means unbounded.
+    private static volatile int maxEntries = 0;
+    private static volatile long maxBytes = 0;
+    private static final AtomicLong totalEntries = new AtomicLong();
+    private static final AtomicLong totalWeight = new AtomicLong();
+
+    // ---> Request frequency of every query, looked up to decide whether a new result is worth an eviction.
+    private static volatile MySQLA_frequencySketch sketch = new MySQLA_frequencySketch(10000);
+    // ---> Queries being loaded right now, per database, table and query, so concurrent misses share one load.
+    private static final Map<List<String>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // ---> Entries whose background refresh has been submitted, so each is refreshed only once.
+    private static final Set<MySQLACache> refreshing = ConcurrentHashMap.newKeySet();
+    // ---> Only writers that need to evict take this lock, lookups never do.
+    private static final ReentrantLock evictionLock = new ReentrantLock();
+    // ---> Entries looked at when picking each eviction victim.
+    private static final int EVICTION_SAMPLES = 8;
+
+    // ---> Instance fields of cached models, used to estimate their size.
+    private static final ClassValue<Field[]> instanceFields = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Field field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                try {
+                    field.setAccessible(true);
+                    fields.add(field);
+                } catch (RuntimeException e) {
+                    // ---> Inaccessible field, left out of the estimate.
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    public static void setLimits(int maxEntries, long maxBytes) {
+
+        // ---> Limits are shared by every instance in the process, one configured alike leaves them (and the request
+        // ---> frequencies gathered so far) untouched. The sketch is only resized along with the amount of entries.
+        maxEntries = Math.max(0, maxEntries);
+        maxBytes = Math.max(0, maxBytes);
+        if (maxEntries == MySQLA_cache.maxEntries && maxBytes == MySQLA_cache.maxBytes) return;
+        if (maxEntries != MySQLA_cache.maxEntries)
+            sketch = new MySQLA_frequencySketch((maxEntries > 0) ? maxEntries : 10000);
+        MySQLA_cache.maxEntries = maxEntries;
+        MySQLA_cache.maxBytes = maxBytes;
+        MySQLA_loggers.logInfo("CACHE - Cache limited to " + (maxEntries > 0 ? maxEntries : "unlimited")
+                + " entries and " + (maxBytes > 0 ? maxBytes + " bytes" : "unlimited bytes") + ".");
+    }
 
     public static void setCache(String database, String table, int expirationTimeInSeconds) {
-        if (table.equals(null) || table.equals("")) {
+        setCache(database, table, new MySQLACachePolicy(expirationTimeInSeconds));
+    }
+
+    public static void setCache(String database, String table, MySQLACachePolicy policy) {
+        if (table == null || table.equals("")) {
             MySQLA_loggers.logError("CACHE - Could not set caching on database '" + database + "', no table selected.");
             return;
         }
 
-        if (expirationTimeInSeconds <=0) {
+        if (policy == null || policy.expirationTimeInSeconds <=0) {
             MySQLA_loggers.logError("CACHE - Could not set cache on table '" + table + "' @ '" + database +
                     "', expiration time in seconds must be greater than zero.");
             return;
         }
 
-        if (cacheable.containsKey(database)) {
-            if (!cacheable.get(database).containsKey(table)) {
-                Map<String, Integer> updatedTables = new HashMap<>(cacheable.get(database));
-                updatedTables.put(table, expirationTimeInSeconds);
-                cacheable.replace(database, updatedTables);
-                MySQLA_loggers.logInfo("CACHE - " + expirationTimeInSeconds + "s cache activated for table '"
-                        + table + "' @ '" + database + "'");
-            }
-            else if (cacheable.get(database).get(table) != expirationTimeInSeconds) {
-                Map<String, Integer> updatedTables = new HashMap<>(cacheable.get(database));
-                updatedTables.remove(table);
-                updatedTables.put(table, expirationTimeInSeconds);
-                cacheable.replace(database, updatedTables);
-                MySQLA_loggers.logInfo("CACHE - Updated cache time to " + expirationTimeInSeconds + "s for table '"
-                        + table + "' @ '" + database + "'");
-            }
+        MySQLACachePolicy previous = cacheable.computeIfAbsent(database, k -> new ConcurrentHashMap<>())
+                .put(table, policy);
+        if (previous == null) {
+            MySQLA_loggers.logInfo("CACHE - " + policy.expirationTimeInSeconds + "s cache activated for table '"
+                    + table + "' @ '" + database + "' (" + policy + ")");
         }
-        else {
-            Map<String, Integer> newTable = Map.of(table, expirationTimeInSeconds);
-            cacheable.put(database, newTable);
-            MySQLA_loggers.logInfo("CACHE - " + expirationTimeInSeconds + "s cache activated for table '"
-                    + table + "' @ '" + database + "'");
+        else if (previous.expirationTimeInSeconds != policy.expirationTimeInSeconds
+                || previous.maxEntries != policy.maxEntries || previous.maxBytes != policy.maxBytes
+                || previous.refreshAheadSeconds != policy.refreshAheadSeconds
+                || previous.maxStaleSeconds != policy.maxStaleSeconds) {
+            MySQLA_loggers.logInfo("CACHE - Updated cache for table '" + table + "' @ '" + database + "' ("
+                    + policy + ")");
         }
     }
 
     public static void stopCache(String database, String table) {
-        if (table.equals(null) || table.equals("")) {
+        if (table == null || table.equals("")) {
             MySQLA_loggers.logError("CACHE - Could not stop caching on database '" + database
                     + "', no table selected.");
             return;
         }
-        synchronized (cacheable) {
-            if (cacheable.containsKey(database) && cacheable.get(database).containsKey(table)) {
-                deleteCache(database, table);
-                Map<String, Integer> updatedTables = new HashMap<>(cacheable.get(database));
-                updatedTables.remove(table);
-                cacheable.replace(database, updatedTables);
-                MySQLA_loggers.logInfo("CACHE - Stopped cache for table '" + table + "' @ '" + database + "'");
-                return;
-            }
-            MySQLA_loggers.logError("CACHE - Could not stop cache for table '" + table + "' @ '" + database
-                    + "' for it hadn't been enabled.");
-        }
-    }
-
-    public static void storeToCache (String database, String table, String query, Object data) {
-        boolean isCacheable = cacheable.containsKey(database) && cacheable.get(database).containsKey(table);
-        if (!isCacheable) return;
-        MySQLACache newCache = new MySQLACache(database, table, query, data);
-        int cacheIndex = cache.indexOf(newCache);
-        if (cacheIndex != -1) return;
-        cache.add(newCache);
-        int expiration = cacheable.get(database).get(table);
-        Thread t = new Thread( () -> {
-            try {
-                Thread.sleep(expiration*1000);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-            synchronized (cache){
-                if (cache.contains(newCache)) {
-                    cache.remove(newCache);
-                    MySQLA_loggers.logInfo("CACHE - " + expiration + "s cache expired for table '"
-                            + table + "' @ '" + database
-                            + "' from query: '" + query + "'");
-                }
+        Map<String, MySQLACachePolicy> tables = cacheable.get(database);
+        if (tables != null && tables.remove(table) != null) {
+            deleteCache(database, table);
+            MySQLA_loggers.logInfo("CACHE - Stopped cache for table '" + table + "' @ '" + database + "'");
+            return;
+        }
+        MySQLA_loggers.logError("CACHE - Could not stop cache for table '" + table + "' @ '" + database
+                + "' for it hadn't been enabled.");
+    }
+
+    public static void storeToCache (String database, String table, String query, Object data,
+                                     long loadTimeNanos) {
+        storeToCache(database, table, query, data, null, loadTimeNanos, null, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void storeToCache (String database, String table, String query, Object data,
+                                     MySQLA_rowMapper<?> mapper, long loadTimeNanos, Set<String> filterKeys,
+                                     Set<String> resultKeys, Supplier<?> loader) {
+        MySQLACachePolicy policy = getPolicy(database, table);
+        if (policy == null) return;
+
+        TableCache tableCache = getTableCache(database, table, true);
+        tableCache.loads.increment();
+        tableCache.loadTime.add(loadTimeNanos);
+
+        // ---> Encode result lists if the table stores them compactly, objects are kept if they can't be encoded.
+        Object stored = data;
+        if (policy.storage != null && policy.storage != MySQLACachePolicy.Storage.OBJECTS && mapper != null
+                && data instanceof List) {
+            MySQLA_cacheCodec.Encoded<?> encoded = MySQLA_cacheCodec.encode((MySQLA_rowMapper<Object>) mapper,
+                    (List<Object>) data, policy.storage == MySQLACachePolicy.Storage.OFF_HEAP);
+            if (encoded != null) stored = encoded;
+        }
+
+        // ---> Keep the first stored result, concurrent loads of the same query don't replace it.
+        MySQLACache newCache = new MySQLACache(database, table, query, stored);
+        newCache.weight = estimateWeight(query, stored);
+        newCache.filterKeys = filterKeys;
+        newCache.resultKeys = resultKeys;
+
+        // ---> With refresh enabled the entry becomes due for a reload ahead of its expiration, and may outlive
+        // ---> it by the staleness bound while the reload is on its way. Without, it's due when it expires.
+        int expiration = policy.expirationTimeInSeconds;
+        boolean refreshes = loader != null && (policy.refreshAheadSeconds > 0 || policy.maxStaleSeconds > 0);
+        int refreshAhead = refreshes ? Math.min(Math.max(0, policy.refreshAheadSeconds), expiration) : 0;
+        int maxStale = refreshes ? Math.max(0, policy.maxStaleSeconds) : 0;
+        newCache.refreshAt = newCache.lastAccess + TimeUnit.SECONDS.toNanos(expiration - refreshAhead);
+        newCache.loader = refreshes ? loader : null;
+        if (!admit(tableCache, policy, newCache)) return;
+
+        // ---> Expiry runs on the shared housekeeping thread, removing this very entry only if still present.
+        newCache.expiration = MySQLA_scheduler.schedule(() -> {
+            if (remove(tableCache, newCache, false)) {
+                MySQLA_loggers.logInfo("CACHE - " + (expiration + maxStale) + "s cache expired for table '"
+                        + table + "' @ '" + database
+                        + "' from query: '" + query + "'");
             }
-        });
-        t.setDaemon(true);
-        t.start();
-        MySQLA_loggers.logInfo("CACHE - Added new " + expiration + "s cache for table '"
-                + table + "' @ '" + database
+        }, expiration + maxStale, TimeUnit.SECONDS);
+
+        MySQLA_loggers.logInfo("CACHE - Added new " + expiration + "s cache (~" + newCache.weight
+                + " bytes) for table '" + table + "' @ '" + database
                 + "' from query: '" + query + "'");
     }
 
     public static void deleteCache(String database, String table) {
-        boolean isCacheable = cacheable.containsKey(database) && cacheable.get(database).containsKey(table);
-        if (!isCacheable) return;
-        synchronized (cache) {
-            int currentEntries = cache.size();
-            cache.removeIf(c -> c.database.equals(database) && c.table.equals(table));
-            int finalEntries = cache.size();
-            if (currentEntries != finalEntries)
-                MySQLA_loggers.logInfo("CACHE - Cleared " + (currentEntries-finalEntries) + " cache(s) entry for table '"
-                        + table + "' @ '" + database + "'");
+        TableCache tableCache = getTableCache(database, table, false);
+        if (tableCache == null) return;
+
+        // ---> Remove entries one by one, so entries stored concurrently are either removed or kept whole.
+        int removed = 0;
+        for (MySQLACache entry : tableCache.entries.values()) {
+            if (remove(tableCache, entry, false)) removed++;
         }
+        if (removed > 0)
+            MySQLA_loggers.logInfo("CACHE - Cleared " + removed + " cache(s) entry for table '"
+                    + table + "' @ '" + database + "'");
     }
 
-    public static <T> List<T> isCacheAvailable (String database, String table, String query) {
-        synchronized (cache) {
-            int cacheIndex = checkCache(database, table, query);
-            if (cacheIndex == -1) return null;
-            List<T> cacheData = (List<T>) cache.get(cacheIndex).data;
-            String type = (cacheData.size()>0) ? (" of type '" + cacheData.get(0).getClass().toString() + "'") : "";
-            MySQLA_loggers.logInfo("CACHE - Retrieving cache (" + cacheData.size() + " items" + type + ") for table '"
-                    + table + "' @ '" + database + "' for query: '" + query + "'");
-            return cacheData;
+    @SuppressWarnings("unchecked")
+    public static <T> T loadOnce(String database, String table, String query, Supplier<T> loader) {
+
+        // ---> Results of non cached tables are never shared.
+        if (!isCacheable(database, table)) return loader.get();
+
+        // ---> First caller runs the query, concurrent callers for the same query wait for its result.
+        List<String> key = Arrays.asList(database, table, query);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            MySQLA_loggers.logInfo("CACHE - Waiting for in-flight query on table '" + table + "' @ '" + database
+                    + "': '" + query + "'");
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                return null;
+            }
         }
+
+        try {
+            T result = loader.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public static boolean isCacheable(String database, String table) {
+        return getPolicy(database, table) != null;
+    }
+
+    public static void invalidateWrittenRows(String database, String table, Collection<?> keys) {
+
+        // ---> Added or updated rows may enter any filtered result, only results of other keys stay valid.
+        Set<String> writtenKeys = MySQLA_cacheKeys.getKeys(keys);
+        if (writtenKeys == null) {
+            deleteCache(database, table);
+            return;
+        }
+        invalidate(database, table, entry -> entry.filterKeys == null || intersects(entry.filterKeys, writtenKeys));
+    }
+
+    public static void invalidateDeletedRows(String database, String table, Set<String> deletedKeys) {
+
+        // ---> Deleted rows only leave results, entries not holding them stay valid (aggregates never do).
+        if (deletedKeys == null) {
+            deleteCache(database, table);
+            return;
+        }
+        invalidate(database, table, entry -> (entry.filterKeys != null)
+                ? intersects(entry.filterKeys, deletedKeys)
+                : entry.resultKeys == null || intersects(entry.resultKeys, deletedKeys));
+    }
+
+    private static void invalidate(String database, String table, Predicate<MySQLACache> affected) {
+        TableCache tableCache = getTableCache(database, table, false);
+        if (tableCache == null) return;
+
+        int removed = 0;
+        int kept = 0;
+        for (MySQLACache entry : tableCache.entries.values()) {
+            if (!affected.test(entry)) kept++;
+            else if (remove(tableCache, entry, false)) removed++;
+        }
+        if (removed > 0)
+            MySQLA_loggers.logInfo("CACHE - Cleared " + removed + " cache(s) entry for table '"
+                    + table + "' @ '" + database + "', " + kept + " unaffected entry(ies) kept.");
+    }
+
+    private static boolean intersects(Set<String> entryKeys, Set<String> keys) {
+        Set<String> smaller = (entryKeys.size() < keys.size()) ? entryKeys : keys;
+        Set<String> larger = (smaller == entryKeys) ? keys : entryKeys;
+        for (String key : smaller) {
+            if (larger.contains(key)) return true;
+        }
+        return false;
+    }
+
+    public static <T> List<T> isCacheAvailable (String database, String table, String query) {
+        MySQLACache entry = checkCache(database, table, query);
+        if (entry == null) return null;
+        List<T> cacheData = getRows(entry);
+        if (cacheData == null) return null;
+        String type = (cacheData.size()>0) ? (" of type '" + cacheData.get(0).getClass().toString() + "'") : "";
+        MySQLA_loggers.logInfo("CACHE - Retrieving cache (" + cacheData.size() + " items" + type + ") for table '"
+                + table + "' @ '" + database + "' for query: '" + query + "'");
+        return cacheData;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> getRows (MySQLACache entry) {
+        // ---> Rows are stored by the operation that reads them back with the same model, under the same query.
+        return (entry.data instanceof MySQLA_cacheCodec.Encoded)
+                ? ((MySQLA_cacheCodec.Encoded<T>) entry.data).decode()
+                : (List<T>) entry.data;
     }
 
     public static Number isNumberCacheAvailable(String database, String table, String query) {
-        synchronized (cache) {
-            int cacheIndex = checkCache(database, table, query);
-            if (cacheIndex == -1) return null;
-            MySQLA_loggers.logInfo("CACHE - Retrieving cache for table '" + table + "' @ '" + database
-                    + "' for query: '" + query + "'");
-            return (Number) cache.get(cacheIndex).data;
-        }
-    }
-
-    private static int checkCache (String database, String table, String query) {
-        boolean isCacheable = cacheable.containsKey(database) && cacheable.get(database).containsKey(table);
-        if (!isCacheable) return -1;
-        MySQLACache newCache = new MySQLACache(database, table, query, "");
-        int cacheIndex = cache.indexOf(newCache);
-        if (cacheIndex == -1) return -1;
-        return cacheIndex;
+        MySQLACache entry = checkCache(database, table, query);
+        if (entry == null) return null;
+        MySQLA_loggers.logInfo("CACHE - Retrieving cache for table '" + table + "' @ '" + database
+                + "' for query: '" + query + "'");
+        return (Number) entry.data;
+    }
+
+    public static Metrics isMetricsCacheAvailable(String database, String table, String query) {
+        MySQLACache entry = checkCache(database, table, query);
+        if (entry == null || !(entry.data instanceof Metrics)) return null;
+        MySQLA_loggers.logInfo("CACHE - Retrieving cache for table '" + table + "' @ '" + database
+                + "' for query: '" + query + "'");
+        return (Metrics) entry.data;
+    }
+
+    public static MySQLACacheStats getStats(String database, String table) {
+        TableCache tableCache = getTableCache(database, table, false);
+        if (tableCache == null) return new MySQLACacheStats(database, table, 0, 0, 0, 0, 0, 0, 0);
+        return new MySQLACacheStats(database, table,
+                tableCache.hits.sum(),
+                tableCache.misses.sum(),
+                tableCache.evictions.sum(),
+                tableCache.loads.sum(),
+                tableCache.loadTime.sum(),
+                tableCache.entries.size(),
+                tableCache.weight.get());
+    }
+
+    private static MySQLACache checkCache (String database, String table, String query) {
+        if (getPolicy(database, table) == null) return null;
+        TableCache tableCache = getTableCache(database, table, true);
+        sketch.increment(getKeyHash(database, table, query));
+
+        MySQLACache entry = tableCache.entries.get(query);
+        if (entry == null) {
+            tableCache.misses.increment();
+            return null;
+        }
+        tableCache.hits.increment();
+        entry.lastAccess = System.nanoTime();
+        if (entry.loader != null && entry.lastAccess - entry.refreshAt >= 0) refresh(tableCache, entry);
+        return entry;
+    }
+
+    private static void refresh (TableCache tableCache, MySQLACache entry) {
+
+        // ---> Reload in the background while callers keep getting the current value. The reload stores its
+        // ---> result over this entry, which stays until then or until it expires for good.
+        if (!refreshing.add(entry)) return;
+        MySQLA_loggers.logInfo("CACHE - Refreshing cache in background for table '" + entry.table + "' @ '"
+                + entry.database + "' from query: '" + entry.query + "'");
+        boolean submitted = MySQLA_scheduler.execute(() -> {
+            try {
+                if (tableCache.entries.get(entry.query) == entry)
+                    loadOnce(entry.database, entry.table, entry.query, entry.loader);
+            } finally {
+                refreshing.remove(entry);
+            }
+        });
+        if (!submitted) refreshing.remove(entry);
+    }
+
+    private static boolean admit (TableCache tableCache, MySQLACachePolicy policy, MySQLACache newCache) {
+        evictionLock.lock();
+        try {
+            // ---> A result already present is kept, unless it's due for a refresh and this one replaces it. It stays
+            // ---> cached until the new one is admitted, so a rejected replacement leaves it in place.
+            MySQLACache existing = tableCache.entries.get(newCache.query);
+            if (existing != null && newCache.lastAccess - existing.refreshAt < 0) return false;
+            Set<Victim> excluded = new HashSet<>();
+            if (existing != null) excluded.add(new Victim(tableCache, existing));
+            int replaced = (existing != null) ? 1 : 0;
+            long replacedWeight = (existing != null) ? existing.weight : 0;
+
+            // ---> A result bigger than a whole cache is never stored.
+            if ((policy.maxBytes > 0 && newCache.weight > policy.maxBytes)
+                    || (maxBytes > 0 && newCache.weight > maxBytes)) {
+                MySQLA_loggers.logInfo("CACHE - Result (~" + newCache.weight + " bytes) too large to be cached for "
+                        + "table '" + newCache.table + "' @ '" + newCache.database + "' from query: '"
+                        + newCache.query + "'");
+                return false;
+            }
+
+            // ---> Pick least recently used victims, first within the table and then across the whole cache.
+            Set<Victim> victims = new LinkedHashSet<>();
+            List<TableCache> ownTable = Collections.singletonList(tableCache);
+            long tableEntries = tableCache.entries.size() + 1 - replaced;
+            long tableWeight = tableCache.weight.get() + newCache.weight - replacedWeight;
+            while (policy.maxEntries > 0 && tableEntries > policy.maxEntries
+                    || policy.maxBytes > 0 && tableWeight > policy.maxBytes) {
+                Victim victim = getLeastRecentlyUsed(ownTable, excluded);
+                if (victim == null) break;
+                victims.add(victim);
+                excluded.add(victim);
+                tableEntries--;
+                tableWeight -= victim.entry.weight;
+            }
+            long entries = totalEntries.get() + 1 - replaced - victims.size();
+            long weight = totalWeight.get() + newCache.weight - replacedWeight
+                    - victims.stream().mapToLong(v -> v.entry.weight).sum();
+            List<TableCache> allTables = null;
+            while (maxEntries > 0 && entries > maxEntries || maxBytes > 0 && weight > maxBytes) {
+                if (allTables == null) allTables = getAllTableCaches();
+                Victim victim = getLeastRecentlyUsed(allTables, excluded);
+                if (victim == null) break;
+                victims.add(victim);
+                excluded.add(victim);
+                entries--;
+                weight -= victim.entry.weight;
+            }
+
+            // ---> Only admit the new result if it has been requested more often than everything it replaces,
+            // ---> so that one-off queries can't flush frequently used results.
+            int frequency = sketch.frequency(getKeyHash(newCache.database, newCache.table, newCache.query));
+            for (Victim victim : victims) {
+                MySQLACache entry = victim.entry;
+                if (sketch.frequency(getKeyHash(entry.database, entry.table, entry.query)) >= frequency) {
+                    MySQLA_loggers.logInfo("CACHE - Result not admitted, cache full of more frequently used "
+                            + "entries. Table '" + newCache.table + "' @ '" + newCache.database + "', query: '"
+                            + newCache.query + "'");
+                    return false;
+                }
+            }
+            for (Victim victim : victims) {
+                if (remove(victim.tableCache, victim.entry, true)) {
+                    MySQLA_loggers.logInfo("CACHE - Evicted cache for table '" + victim.entry.table + "' @ '"
+                            + victim.entry.database + "' from query: '" + victim.entry.query + "'");
+                }
+            }
+
+            // ---> Swap in the new result in one step, readers see either the previous one or this one.
+            tableCache.track(newCache);
+            if (existing != null && tableCache.entries.replace(newCache.query, existing, newCache)) {
+                release(tableCache, existing, false);
+            }
+            else tableCache.entries.put(newCache.query, newCache);
+            tableCache.weight.addAndGet(newCache.weight);
+            totalEntries.incrementAndGet();
+            totalWeight.addAndGet(newCache.weight);
+            return true;
+
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static boolean remove (TableCache tableCache, MySQLACache entry, boolean evicted) {
+        if (!tableCache.entries.remove(entry.query, entry)) return false;
+        release(tableCache, entry, evicted);
+        return true;
+    }
+
+    private static void release (TableCache tableCache, MySQLACache entry, boolean evicted) {
+        tableCache.untrack(entry);
+        if (entry.expiration != null) entry.expiration.cancel(false);
+        tableCache.weight.addAndGet(-entry.weight);
+        totalEntries.decrementAndGet();
+        totalWeight.addAndGet(-entry.weight);
+        if (evicted) tableCache.evictions.increment();
+    }
+
+    private static Victim getLeastRecentlyUsed (List<TableCache> tableCaches, Set<Victim> excluded) {
+
+        // ---> Approximate LRU: the least recently used of a few entries picked at random, so choosing a victim
+        // ---> doesn't depend on how many entries are cached. Tables are picked in proportion to their size.
+        long[] sizes = new long[tableCaches.size()];
+        long total = 0;
+        for (int i = 0; i < sizes.length; i++) total = sizes[i] = total + tableCaches.get(i).size();
+        if (total <= excluded.size()) return null;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Victim oldest = null;
+        for (int sample = 0; sample < EVICTION_SAMPLES; sample++) {
+            long position = random.nextLong(total);
+            int index = 0;
+            while (sizes[index] <= position) index++;
+            TableCache tableCache = tableCaches.get(index);
+            MySQLACache entry = tableCache.sample(random);
+            if (entry == null) continue;
+            Victim victim = new Victim(tableCache, entry);
+            if (excluded.contains(victim)) continue;
+            if (oldest == null || entry.lastAccess - oldest.entry.lastAccess < 0) oldest = victim;
+        }
+        if (oldest != null) return oldest;
+
+        // ---> Every sample was already a victim, only left when few entries remain, so a scan is cheap.
+        for (TableCache tableCache : tableCaches) {
+            for (MySQLACache entry : tableCache.entries.values()) {
+                Victim victim = new Victim(tableCache, entry);
+                if (!excluded.contains(victim)) return victim;
+            }
+        }
+        return null;
+    }
+
+    private static List<TableCache> getAllTableCaches () {
+        List<TableCache> tableCaches = new ArrayList<>();
+        for (Map<String, TableCache> tables : cache.values()) tableCaches.addAll(tables.values());
+        return tableCaches;
+    }
+
+    private static long estimateWeight (String query, Object data) {
+        long weight = 64 + query.length() * 2L;
+        if (data instanceof MySQLA_cacheCodec.Encoded)
+            return weight + ((MySQLA_cacheCodec.Encoded<?>) data).getEncodedSize();
+        if (!(data instanceof List)) return weight + estimateObjectWeight(data);
+
+        // ---> Estimate from a sample of evenly spread rows, rows of a result are alike.
+        List<?> list = (List<?>) data;
+        int size = list.size();
+        if (size == 0) return weight;
+        int samples = Math.min(size, 16);
+        long sampled = 0;
+        for (int x = 0; x < samples; x++) sampled += estimateObjectWeight(list.get(x * size / samples));
+        return weight + size * 8L + sampled * size / samples;
+    }
+
+    private static long estimateObjectWeight (Object data) {
+        if (data == null) return 0;
+        if (data instanceof Number || data instanceof Boolean) return 16;
+        if (data instanceof String) return 40 + ((String) data).length() * 2L;
+        long weight = 16;
+        for (Field field : instanceFields.get(data.getClass())) {
+            try {
+                weight += 8 + MySQLA_orm.estimateSize(field.get(data));
+            } catch (IllegalAccessException e) {
+                weight += 8;
+            }
+        }
+        return weight;
+    }
+
+    private static int getKeyHash (String database, String table, String query) {
+        return 31 * (31 * database.hashCode() + table.hashCode()) + query.hashCode();
+    }
+
+    private static MySQLACachePolicy getPolicy (String database, String table) {
+        Map<String, MySQLACachePolicy> tables = cacheable.get(database);
+        return (tables == null) ? null : tables.get(table);
+    }
+
+    private static TableCache getTableCache (String database, String table, boolean create) {
+        if (!create) {
+            Map<String, TableCache> tables = cache.get(database);
+            return (tables == null) ? null : tables.get(table);
+        }
+        return cache.computeIfAbsent(database, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(table, k -> new TableCache());
+    }
+
+    private static class TableCache {
+        private final Map<String, MySQLACache> entries = new ConcurrentHashMap<>();
+        private final AtomicLong weight = new AtomicLong();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+        private final LongAdder loads = new LongAdder();
+        private final LongAdder loadTime = new LongAdder();
+        // ---> Same entries in an array, so they can be sampled at random for eviction. Only writers lock it.
+        private final List<MySQLACache> slots = new ArrayList<>();
+        private final ReentrantLock slotsLock = new ReentrantLock();
+
+        private void track (MySQLACache entry) {
+            slotsLock.lock();
+            try {
+                entry.slot = slots.size();
+                slots.add(entry);
+            } finally {
+                slotsLock.unlock();
+            }
+        }
+
+        private void untrack (MySQLACache entry) {
+            slotsLock.lock();
+            try {
+                int slot = entry.slot;
+                if (slot < 0 || slot >= slots.size() || slots.get(slot) != entry) return;
+                MySQLACache last = slots.remove(slots.size() - 1);
+                if (last != entry) {
+                    slots.set(slot, last);
+                    last.slot = slot;
+                }
+                entry.slot = -1;
+            } finally {
+                slotsLock.unlock();
+            }
+        }
+
+        private int size () {
+            slotsLock.lock();
+            try {
+                return slots.size();
+            } finally {
+                slotsLock.unlock();
+            }
+        }
+
+        private MySQLACache sample (Random random) {
+            slotsLock.lock();
+            try {
+                return slots.isEmpty() ? null : slots.get(random.nextInt(slots.size()));
+            } finally {
+                slotsLock.unlock();
+            }
+        }
+    }
+
+    private static class Victim {
+        private final TableCache tableCache;
+        private final MySQLACache entry;
+
+        private Victim(TableCache tableCache, MySQLACache entry) {
+            this.tableCache = tableCache;
+            this.entry = entry;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Victim && ((Victim) o).entry == entry;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(entry);
+        }
     }
 }
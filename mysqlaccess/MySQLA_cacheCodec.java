@@ -0,0 +1,196 @@
+package com.company.mysqlaccess;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MySQLA_cacheCodec {
+
+    // ---> Field types that can be encoded, any other field type keeps the result as plain objects.
+    private enum Kind { BOOLEAN, BYTE, SHORT, INT, LONG, FLOAT, DOUBLE, CHAR, STRING, DECIMAL, BYTES, LOCAL_DATE,
+        LOCAL_DATE_TIME, LOCAL_TIME, SQL_DATE, SQL_TIME, TIMESTAMP }
+
+    private static final Map<Class<?>, Kind> kinds = Map.ofEntries(
+            Map.entry(boolean.class, Kind.BOOLEAN), Map.entry(Boolean.class, Kind.BOOLEAN),
+            Map.entry(byte.class, Kind.BYTE), Map.entry(Byte.class, Kind.BYTE),
+            Map.entry(short.class, Kind.SHORT), Map.entry(Short.class, Kind.SHORT),
+            Map.entry(int.class, Kind.INT), Map.entry(Integer.class, Kind.INT),
+            Map.entry(long.class, Kind.LONG), Map.entry(Long.class, Kind.LONG),
+            Map.entry(float.class, Kind.FLOAT), Map.entry(Float.class, Kind.FLOAT),
+            Map.entry(double.class, Kind.DOUBLE), Map.entry(Double.class, Kind.DOUBLE),
+            Map.entry(char.class, Kind.CHAR), Map.entry(Character.class, Kind.CHAR),
+            Map.entry(String.class, Kind.STRING),
+            Map.entry(BigDecimal.class, Kind.DECIMAL),
+            Map.entry(byte[].class, Kind.BYTES),
+            Map.entry(LocalDate.class, Kind.LOCAL_DATE),
+            Map.entry(LocalDateTime.class, Kind.LOCAL_DATE_TIME),
+            Map.entry(LocalTime.class, Kind.LOCAL_TIME),
+            Map.entry(Date.class, Kind.SQL_DATE),
+            Map.entry(Time.class, Kind.SQL_TIME),
+            Map.entry(Timestamp.class, Kind.TIMESTAMP));
+
+    public static <T> Encoded<T> encode(MySQLA_rowMapper<T> mapper, List<T> rows, boolean offHeap) {
+        int columns = mapper.getColumnCount();
+        Kind[] columnKinds = new Kind[columns];
+        for (int x = 0; x < columns; x++) {
+            columnKinds[x] = kinds.get(mapper.getFieldType(x));
+            if (columnKinds[x] == null) return null;
+        }
+
+        // ---> Column by column: a null bitmap, then the values of non null rows only.
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + rows.size() * columns * 8);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            for (int x = 0; x < columns; x++) {
+                byte[] nulls = new byte[(rows.size() + 7) / 8];
+                Object[] values = new Object[rows.size()];
+                for (int y = 0; y < values.length; y++) {
+                    values[y] = mapper.getValue(rows.get(y), x);
+                    if (values[y] == null) nulls[y >>> 3] |= 1 << (y & 7);
+                }
+                out.write(nulls);
+                for (Object value : values) {
+                    if (value != null) write(out, columnKinds[x], value);
+                }
+            }
+        } catch (IOException | ClassCastException e) {
+            MySQLA_loggers.logError("CACHE - Unable to encode result, kept as objects: " + e.getMessage());
+            return null;
+        }
+
+        // ---> Off heap buffers hold the result outside the garbage collected heap, freed along with the entry.
+        byte[] encoded = bytes.toByteArray();
+        ByteBuffer buffer = offHeap
+                ? ByteBuffer.allocateDirect(encoded.length).put(encoded).flip()
+                : ByteBuffer.wrap(encoded);
+        return new Encoded<>(mapper, columnKinds, rows.size(), buffer);
+    }
+
+    private static void write(DataOutputStream out, Kind kind, Object value) throws IOException {
+        switch (kind) {
+            case BOOLEAN: out.writeBoolean((Boolean) value); break;
+            case BYTE: out.writeByte((Byte) value); break;
+            case SHORT: out.writeShort((Short) value); break;
+            case INT: out.writeInt((Integer) value); break;
+            case LONG: out.writeLong((Long) value); break;
+            case FLOAT: out.writeFloat((Float) value); break;
+            case DOUBLE: out.writeDouble((Double) value); break;
+            case CHAR: out.writeChar((Character) value); break;
+            case STRING: writeBytes(out, ((String) value).getBytes(StandardCharsets.UTF_8)); break;
+            case DECIMAL:
+                out.writeInt(((BigDecimal) value).scale());
+                writeBytes(out, ((BigDecimal) value).unscaledValue().toByteArray());
+                break;
+            case BYTES: writeBytes(out, (byte[]) value); break;
+            case LOCAL_DATE: out.writeLong(((LocalDate) value).toEpochDay()); break;
+            case LOCAL_DATE_TIME:
+                out.writeLong(((LocalDateTime) value).toLocalDate().toEpochDay());
+                out.writeLong(((LocalDateTime) value).toLocalTime().toNanoOfDay());
+                break;
+            case LOCAL_TIME: out.writeLong(((LocalTime) value).toNanoOfDay()); break;
+            case SQL_DATE: out.writeLong(((Date) value).getTime()); break;
+            case SQL_TIME: out.writeLong(((Time) value).getTime()); break;
+            case TIMESTAMP:
+                out.writeLong(((Timestamp) value).getTime());
+                out.writeInt(((Timestamp) value).getNanos());
+                break;
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    private static Object read(ByteBuffer in, Kind kind) {
+        switch (kind) {
+            case BOOLEAN: return in.get() != 0;
+            case BYTE: return in.get();
+            case SHORT: return in.getShort();
+            case INT: return in.getInt();
+            case LONG: return in.getLong();
+            case FLOAT: return in.getFloat();
+            case DOUBLE: return in.getDouble();
+            case CHAR: return in.getChar();
+            case STRING: return new String(readBytes(in), StandardCharsets.UTF_8);
+            case DECIMAL:
+                int scale = in.getInt();
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case BYTES: return readBytes(in);
+            case LOCAL_DATE: return LocalDate.ofEpochDay(in.getLong());
+            case LOCAL_DATE_TIME:
+                LocalDate date = LocalDate.ofEpochDay(in.getLong());
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(in.getLong()));
+            case LOCAL_TIME: return LocalTime.ofNanoOfDay(in.getLong());
+            case SQL_DATE: return new Date(in.getLong());
+            case SQL_TIME: return new Time(in.getLong());
+            case TIMESTAMP:
+                Timestamp timestamp = new Timestamp(in.getLong());
+                timestamp.setNanos(in.getInt());
+                return timestamp;
+            default: return null;
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        byte[] value = new byte[in.getInt()];
+        in.get(value);
+        return value;
+    }
+
+    public static class Encoded<T> {
+        private final MySQLA_rowMapper<T> mapper;
+        private final Kind[] kinds;
+        private final int rows;
+        private final ByteBuffer buffer;
+
+        private Encoded(MySQLA_rowMapper<T> mapper, Kind[] kinds, int rows, ByteBuffer buffer) {
+            this.mapper = mapper;
+            this.kinds = kinds;
+            this.rows = rows;
+            this.buffer = buffer;
+        }
+
+        public int size() {
+            return rows;
+        }
+
+        public int getEncodedSize() {
+            return buffer.capacity();
+        }
+
+        public List<T> decode() {
+
+            // ---> Every hit gets its own instances, read through a private view of the shared buffer.
+            List<T> data = new ArrayList<>(rows);
+            for (int y = 0; y < rows; y++) {
+                T row = mapper.newInstance();
+                if (row == null) return null;
+                data.add(row);
+            }
+            ByteBuffer in = buffer.duplicate();
+            byte[] nulls = new byte[(rows + 7) / 8];
+            for (int x = 0; x < kinds.length; x++) {
+                in.get(nulls);
+                for (int y = 0; y < rows; y++) {
+                    if ((nulls[y >>> 3] & (1 << (y & 7))) != 0) continue;
+                    if (!mapper.setValue(data.get(y), x, read(in, kinds[x]))) return null;
+                }
+            }
+            return data;
+        }
+    }
+}
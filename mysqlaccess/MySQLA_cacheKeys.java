@@ -0,0 +1,167 @@
+package com.company.mysqlaccess;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public class MySQLA_cacheKeys {
+
+    public static Set<String> getFilterKeys(String primaryKey, String sqlWhereFilter) {
+
+        // ---> Recognizes filters selecting rows by primary key only ("id = 5", "id in (1, 2)"), null otherwise.
+        if (primaryKey == null || sqlWhereFilter == null) return null;
+        Parser parser = new Parser(sqlWhereFilter);
+
+        String column = parser.readIdentifier();
+        if (column == null || !column.equalsIgnoreCase(primaryKey)) return null;
+
+        Set<String> keys = new HashSet<>();
+        if (parser.accept('=')) {
+            String value = parser.readLiteral();
+            if (value == null) return null;
+            keys.add(value);
+        }
+        else if (parser.acceptWord("in") && parser.accept('(')) {
+            do {
+                String value = parser.readLiteral();
+                if (value == null) return null;
+                keys.add(value);
+            } while (parser.accept(','));
+            if (!parser.accept(')')) return null;
+        }
+        else return null;
+
+        // ---> Anything after the predicate (and, or, order by...) could widen or narrow the result.
+        return parser.atEnd() ? keys : null;
+    }
+
+    public static Set<String> getKeys(Collection<?> values) {
+        if (values == null) return null;
+        Set<String> keys = new HashSet<>();
+        for (Object value : values) {
+            if (value == null) return null;
+            keys.add(normalize(value.toString()));
+        }
+        return keys;
+    }
+
+    public static <T> Set<String> getResultKeys(MySQLA_rowMapper<T> mapper, String primaryKey, List<T> data) {
+
+        // ---> Primary keys present on a result, null if the model doesn't map the primary key.
+        int index = (mapper == null || primaryKey == null) ? -1 : mapper.indexOf(primaryKey);
+        if (index == -1) return null;
+        Set<String> keys = new HashSet<>();
+        for (T row : data) {
+            Object value = mapper.getValue(row, index);
+            if (value == null) return null;
+            keys.add(normalize(value.toString()));
+        }
+        return keys;
+    }
+
+    public static String normalize(String value) {
+
+        // ---> Same key however it was written ('5', 5, 5.0). Text is compared the way a case and trailing
+        // ---> space insensitive collation would, so different spellings may clash but never go unnoticed.
+        String trimmed = value.trim();
+        try {
+            return new BigDecimal(trimmed).stripTrailingZeros().toPlainString();
+        } catch (NumberFormatException e) {
+            int end = value.length();
+            while (end > 0 && value.charAt(end - 1) == ' ') end--;
+            return value.substring(0, end).toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static class Parser {
+        private final String text;
+        private int position = 0;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) position++;
+        }
+
+        private boolean atEnd() {
+            skipSpaces();
+            return position == text.length();
+        }
+
+        private boolean accept(char c) {
+            skipSpaces();
+            if (position < text.length() && text.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean acceptWord(String word) {
+            skipSpaces();
+            int end = position + word.length();
+            if (end > text.length() || !text.regionMatches(true, position, word, 0, word.length())) return false;
+            if (end < text.length() && Character.isLetterOrDigit(text.charAt(end))) return false;
+            position = end;
+            return true;
+        }
+
+        private String readIdentifier() {
+            skipSpaces();
+            int start = position;
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if (!Character.isLetterOrDigit(c) && c != '_' && c != '$' && c != '`' && c != '.') break;
+                position++;
+            }
+            if (start == position) return null;
+
+            // ---> Drop quoting and table qualifier.
+            String identifier = text.substring(start, position).replace("`", "");
+            return identifier.substring(identifier.lastIndexOf('.') + 1);
+        }
+
+        private String readLiteral() {
+            skipSpaces();
+            if (position >= text.length()) return null;
+            char quote = text.charAt(position);
+
+            if (quote == '\'' || quote == '"') {
+                StringBuilder value = new StringBuilder();
+                position++;
+                while (position < text.length()) {
+                    char c = text.charAt(position++);
+                    if (c == '\\') return null;
+                    if (c == quote) {
+                        if (position < text.length() && text.charAt(position) == quote) {
+                            value.append(quote);
+                            position++;
+                            continue;
+                        }
+                        return normalize(value.toString());
+                    }
+                    value.append(c);
+                }
+                return null;
+            }
+
+            int start = position;
+            while (position < text.length()) {
+                char c = text.charAt(position);
+                if (!Character.isDigit(c) && c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') break;
+                position++;
+            }
+            if (start == position) return null;
+            try {
+                return new BigDecimal(text.substring(start, position)).stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.company.mysqlaccess;
+
+import com.company.mysqlaccess.models.MySQLAConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class MySQLA_connectionPool {
+
+    private final String url;
+    private final String database;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int validationTimeout;
+    private final long validationIdleMillis;
+    private final long acquisitionTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+
+    // ---> One permit per connection that may be lent out at the same time (pool max size).
+    private final Semaphore permits;
+    // ---> Idle connections, most recently returned first.
+    private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    // ---> Prepared statements kept open on each connection, keyed by SQL text.
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> evictionTask;
+    private volatile boolean closed = false;
+
+    public MySQLA_connectionPool(String url, MySQLAConfig config) {
+        this.url = url;
+        this.database = config.database;
+        this.user = config.user;
+        this.password = config.password;
+        this.minSize = Math.max(0, config.poolMinSize);
+        this.validationTimeout = config.poolValidationTimeoutSeconds;
+        this.validationIdleMillis = Math.max(0, config.poolValidationIdleSeconds) * 1000L;
+        this.acquisitionTimeoutMillis = config.poolTimeoutSeconds * 1000L;
+        this.idleTimeoutMillis = config.poolIdleTimeoutSeconds * 1000L;
+        this.statementCacheSize = Math.max(1, config.statementCacheSize);
+        this.permits = new Semaphore(Math.max(1, config.poolMaxSize), true);
+
+        // ---> Open minimum amount of connections upfront.
+        fillToMinimum();
+
+        // ---> Periodically close connections that have been idle for too long.
+        long evictionPeriod = Math.max(1000L, idleTimeoutMillis / 2);
+        this.evictionTask = MySQLA_scheduler.scheduleAtFixedRate(this::evictIdleConnections, evictionPeriod,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() {
+        return getConnection(acquisitionTimeoutMillis);
+    }
+
+    private Connection getConnection(long waitMillis) {
+
+        // ---> If pool has been shut down, abort.
+        if (closed) {
+            MySQLA_loggers.logError("POOL - Connection pool for database '" + database + "' has been closed.");
+            return null;
+        }
+
+        // ---> Wait for a free slot, up to the configured acquisition timeout (not at all for optional borrowers).
+        try {
+            if (!permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                if (waitMillis > 0) MySQLA_loggers.logError("POOL - Timed out after " + waitMillis
+                        + "ms waiting for a connection to database '" + database + "'.");
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            MySQLA_loggers.logError("POOL - Interrupted while waiting for a connection to database '"
+                    + database + "'.");
+            return null;
+        }
+
+        // ---> Reuse the most recently returned idle connection that is still valid. Checking costs a round trip to
+        // ---> the server, so connections returned moments ago are trusted as they are.
+        Connection conn = null;
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            boolean recentlyUsed = System.currentTimeMillis() - candidate.idleSince < validationIdleMillis;
+            if (recentlyUsed || isValid(candidate.conn)) {
+                conn = candidate.conn;
+                break;
+            }
+            MySQLA_loggers.logInfo("POOL - Discarding stale connection to database '" + database + "'.");
+            discard(candidate.conn);
+        }
+
+        // ---> No idle connection available, open a new one.
+        if (conn == null) conn = openConnection();
+        if (conn == null) permits.release();
+        return conn;
+    }
+
+    public void releaseConnection(Connection conn) {
+        if (conn == null) return;
+
+        // ---> Never hand over a connection with a pending transaction.
+        boolean reusable = !closed;
+        try {
+            if (conn.isClosed()) {
+                reusable = false;
+            }
+            else if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) idle.offerFirst(new IdleConnection(conn));
+        else discard(conn);
+        permits.release();
+    }
+
+    public <T> T withConnection(Function<Connection, T> task) {
+
+        // ---> Borrow a connection for the task alone (i.e. background reloads), null if none could be had.
+        Connection conn = getConnection();
+        if (conn == null) return null;
+        try {
+            return task.apply(conn);
+        } finally {
+            releaseConnection(conn);
+        }
+    }
+
+    public <T> T tryWithConnection(Function<Connection, T> task) {
+
+        // ---> Borrow a connection for the task only if one is free right away (i.e. optional helpers), null if not.
+        Connection conn = getConnection(0);
+        if (conn == null) return null;
+        try {
+            return task.apply(conn);
+        } finally {
+            releaseConnection(conn);
+        }
+    }
+
+    public PreparedStatement prepareStatement(Connection conn, String sql, int autoGeneratedKeys)
+            throws SQLException {
+
+        // ---> A connection is only used by one borrower at a time, so its cache needs no locking.
+        // ---> Statements returned here belong to the cache and must not be closed by the caller.
+        StatementCache statements = statementCaches.computeIfAbsent(conn,
+                c -> new StatementCache(statementCacheSize));
+        PreparedStatement ps = statements.get(sql);
+        if (ps == null || ps.isClosed()) {
+            ps = conn.prepareStatement(sql, autoGeneratedKeys);
+            statements.put(sql, ps);
+        }
+        return ps;
+    }
+
+    public ResultSet executeQuery(Connection conn, String sql, boolean prepared) throws SQLException {
+
+        // ---> Constant queries are kept prepared. Ad-hoc text (i.e. custom filters) runs on a plain statement closed
+        // ---> along with its result, so one-off queries don't push kept statements out.
+        if (prepared) return prepareStatement(conn, sql, Statement.NO_GENERATED_KEYS).executeQuery();
+        Statement st = conn.createStatement();
+        try {
+            st.closeOnCompletion();
+            return st.executeQuery(sql);
+        } catch (SQLException e) {
+            st.close();
+            throw e;
+        }
+    }
+
+    public void close() {
+        closed = true;
+        evictionTask.cancel(false);
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) discard(candidate.conn);
+        MySQLA_loggers.logInfo("POOL - Closed connection pool for database '" + database + "'.");
+    }
+
+    private Connection openConnection() {
+        try {
+            Connection conn = DriverManager.getConnection(url, user, password);
+            int total = openConnections.incrementAndGet();
+            MySQLA_loggers.logInfo("POOL - Opened new connection to database '" + database + "' (" + total
+                    + " open).");
+            return conn;
+        } catch (SQLException e) {
+            MySQLA_loggers.logError("POOL - Unable to connect to database '" + database + "' @ " + url
+                    + " with user '" + user + "'.");
+            MySQLA_loggers.logError(e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean isValid(Connection conn) {
+        try {
+            return conn.isValid(validationTimeout);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(Connection conn) {
+        openConnections.decrementAndGet();
+        statementCaches.remove(conn);
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            MySQLA_loggers.logError("POOL - Failed to close connection to database '" + database + "': "
+                    + e.getMessage());
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && openConnections.get() < minSize) {
+            Connection conn = openConnection();
+            if (conn == null) return;
+            idle.offerLast(new IdleConnection(conn));
+        }
+    }
+
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+
+        // ---> Oldest idle connections sit at the tail of the deque.
+        Iterator<IdleConnection> iterator = idle.descendingIterator();
+        while (iterator.hasNext() && openConnections.get() > minSize) {
+            IdleConnection candidate = iterator.next();
+            if (now - candidate.idleSince < idleTimeoutMillis) break;
+            if (idle.remove(candidate)) {
+                MySQLA_loggers.logInfo("POOL - Evicting connection to database '" + database + "' idle for "
+                        + (now - candidate.idleSince) + "ms.");
+                discard(candidate.conn);
+            }
+        }
+
+        fillToMinimum();
+    }
+
+    private static class StatementCache extends LinkedHashMap<String, PreparedStatement> {
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+
+        private StatementCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() <= maxSize) return false;
+            try {
+                eldest.getValue().close();
+            } catch (SQLException e) {
+                MySQLA_loggers.logError("POOL - Failed to close cached statement: " + e.getMessage());
+            }
+            return true;
+        }
+    }
+
+    private static class IdleConnection {
+        private final Connection conn;
+        private final long idleSince;
+
+        private IdleConnection(Connection conn) {
+            this.conn = conn;
+            this.idleSince = System.currentTimeMillis();
+        }
+    }
+}
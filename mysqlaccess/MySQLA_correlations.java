@@ -1,86 +1,208 @@
 package com.company.mysqlaccess;
 
+import com.company.mysqlaccess.models.TableSchema;
+
+import java.lang.reflect.Field;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 public class MySQLA_correlations {
-    private static Map<Map<Class, Set<String>>, Map<String, String>> columnFieldCorrelations = new HashMap<>();
+
+    // ---> Column sets CRUD operations correlate with model fields.
+    public enum ColumnSet { ALL, UPDATABLE, UPDATABLE_WITH_PRIMARY_KEY }
+
+    // ---> Correlations and mapper of each model, per table schema (by identity). Known correlations are found
+    // ---> without allocating anything, a table fetched again gets a new schema and thus new correlations.
+    private static final ClassValue<Map<TableSchema, Resolved>> resolved = new ClassValue<>() {
+        @Override
+        protected Map<TableSchema, Resolved> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static Map<Map<Class, Set<String>>, Map<String, String>> columnFieldCorrelations =
+            new ConcurrentHashMap<>();
     private static Map<String, List<Class>> mySqlTypeEquivalency = MySQLA_typeEquivalency.getTypeEquivalency();
 
+    public static <T> MySQLA_rowMapper<T> getRowMapper (Class<T> type, Map<String, String> propertyMap,
+                                                        String database, String table) {
+        TableSchema schema = MySQLA_tableProperties.getSchema(database, table);
+        if (schema == null) return MySQLA_rowMapper.build(type, propertyMap, (TableSchema) null);
+        return getRowMapper(type, propertyMap, schema);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> MySQLA_rowMapper<T> getRowMapper (Class<T> type, Map<String, String> propertyMap,
+                                                        TableSchema schema) {
+
+        // ---> One mapper per model, table schema and column/field correlation, built on first use. Column readers
+        // ---> depend on column types, so a table fetched again gets new mappers along with its new schema.
+        return (MySQLA_rowMapper<T>) getResolved(type, schema).getRowMapper(propertyMap);
+    }
+
+    public static Map<String, String> getColumnFieldCorrelation (Class type, TableSchema schema, ColumnSet set) {
+        return getResolved(type, schema).getPropertyMap(set);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> MySQLA_rowMapper<T> getRowMapper (Class<T> type, TableSchema schema) {
+        return (MySQLA_rowMapper<T>) getResolved(type, schema).getRowMapper();
+    }
+
+    private static Resolved getResolved (Class type, TableSchema schema) {
+        Map<TableSchema, Resolved> schemas = resolved.get(type);
+        Resolved entry = schemas.get(schema);
+        if (entry != null) return entry;
+
+        // ---> First use of this schema, mappings of previous versions of the same table are dropped.
+        schemas.keySet().removeIf(s -> s != schema && s.table.equals(schema.table)
+                && s.database.equals(schema.database));
+        return schemas.computeIfAbsent(schema, s -> new Resolved(type, s));
+    }
+
     public static Map<String, String> getColumnFieldCorrelation (Class type, List<String> columns, String database,
                                                                   String tableName) {
 
-        // ---> Check if this correlation has been previously calculated and returns from memory if so.
+        // ---> Arbitrary column sets (i.e. joined tables). Check if this correlation has been previously calculated
+        // ---> and returns from memory if so.
         Map<Class, Set<String>> correlationKey = Map.of(type, new HashSet<>(columns));
         if (columnFieldCorrelations.containsKey(correlationKey))
             return columnFieldCorrelations.get(correlationKey);
 
         // ---> New column/field correlation, initiate calculations.
-        List<Map<String, Object>> correlations = new ArrayList<>();
-
-        // ---> Build class' fields list
-        List<String> fields = Arrays.stream(type.getDeclaredFields()).map(x -> x.getName())
-                .collect(Collectors.toList());
-
-        // ---> Calculate all possible columns/field correlations
-        for (String column : columns) {
-            buildCorrelationsMap(correlations, type, fields, column, database, tableName);
-        }
-
-        // ---> Build final property map with best correlations
-        Map<String, String> propertyMap = buildFinalPropertyMap(correlations);
+        Map<String, String> propertyMap = correlate(type, columns, MySQLA_tableProperties.getSchema(database,
+                tableName));
         MySQLA_loggers.logInfo("CORRELATIONS - Saving new column/field correlation between table '" + tableName
                 + "' and model '" + type.getName() + "': " + propertyMap);
         columnFieldCorrelations.put(correlationKey, propertyMap);
         return propertyMap;
     }
 
-    private static void buildCorrelationsMap (
-            List<Map<String, Object>> correlations, Class type, List<String> fields, String columnName,
-            String database, String table) {
-
-        String columnType = MySQLA_tableProperties.getColumnType(database, table, columnName);
-
-        for (String fieldName : fields) {
+    private static Map<String, String> correlate (Class type, List<String> columns, TableSchema schema) {
+
+        // ---> Every type compatible column/field pair is a candidate, indexed as column * fields + field.
+        Field[] fields = type.getDeclaredFields();
+        String[] columnNames = columns.toArray(new String[0]);
+        int fieldCount = fields.length;
+        int[] bounds = new int[columnNames.length * fieldCount];
+        int maxLength = 0;
+        for (Field field : fields) maxLength = Math.max(maxLength, field.getName().length());
+        for (int c = 0; c < columnNames.length; c++) {
+            String columnType = (schema == null) ? null : schema.getColumnType(columnNames[c]);
+            List<Class> compatibleTypes = mySqlTypeEquivalency.get(columnType);
+            maxLength = Math.max(maxLength, columnNames[c].length());
+            for (int f = 0; f < fieldCount; f++) {
+
+                // ---> If column type is not convertible to non-string field type, do not consider.
+                Class fieldType = fields[f].getType();
+                boolean compatible = compatibleTypes == null || compatibleTypes.contains(fieldType)
+                        || fieldType == String.class;
+
+                // ---> Lowest distance the pair may have, -1 once it needs no further consideration.
+                bounds[c * fieldCount + f] = compatible
+                        ? Math.abs(columnNames[c].length() - fields[f].getName().length())
+                        : -1;
+            }
+        }
 
-            // ---> If column type is not convertible to non-string field type, do not consider.
-            if (mySqlTypeEquivalency.containsKey(columnType)) {
-                Class fieldType = null;
-                try {
-                    fieldType = type.getDeclaredField(fieldName).getType();
-                } catch (NoSuchFieldException e) {
-                    e.printStackTrace();
+        // ---> Pairs are taken by lowest Levenshtein distance first (then column and field order), each column and
+        // ---> field at most once. Distances are only computed up to a growing limit, so far apart pairs are
+        // ---> abandoned early and most pairs never get their exact distance computed.
+        Map<String, String> propertyMap = new HashMap<>();
+        boolean[] usedFields = new boolean[fieldCount];
+        int[] previous = new int[maxLength + 1];
+        int[] current = new int[maxLength + 1];
+        long[] found = new long[bounds.length];
+        int limit = 0;
+        while (true) {
+            int foundCount = 0;
+            boolean pending = false;
+            for (int p = 0; p < bounds.length; p++) {
+                if (bounds[p] < 0) continue;
+                int f = p % fieldCount;
+                String column = columnNames[p / fieldCount];
+                if (usedFields[f] || propertyMap.containsKey(column)) {
+                    bounds[p] = -1;
+                    continue;
                 }
-                if (!mySqlTypeEquivalency.get(columnType).contains(fieldType) && fieldType != String.class) {
+                if (bounds[p] > limit) {
+                    pending = true;
                     continue;
                 }
 
+                // ---> Exact name match is the best possible correlation, no need to compute anything.
+                String field = fields[f].getName();
+                int distance = (limit == 0)
+                        ? (column.equals(field) ? 0 : 1)
+                        : MySQLA_levenstein.getLevensteinDistance(column, field, limit, previous, current);
+                if (distance <= limit) {
+                    found[foundCount++] = ((long) distance << 32) | p;
+                    bounds[p] = -1;
+                }
+                else {
+                    bounds[p] = limit + 1;
+                    pending = true;
+                }
+            }
+
+            // ---> Pairs found within this limit are all farther than those found before, take them in order.
+            Arrays.sort(found, 0, foundCount);
+            for (int x = 0; x < foundCount; x++) {
+                int p = (int) found[x];
+                int f = p % fieldCount;
+                String column = columnNames[p / fieldCount];
+                if (!usedFields[f] && !propertyMap.containsKey(column)) {
+                    propertyMap.put(column, fields[f].getName());
+                    usedFields[f] = true;
+                }
             }
 
-            int currentLevenstein = MySQLA_levenstein.getLevensteinDistance(columnName, fieldName);
-            Map<String, Object> newMap = new HashMap<>();
-            newMap.put("levenstein", currentLevenstein);
-            newMap.put("column", columnName);
-            newMap.put("field", fieldName);
-            correlations.add(newMap);
+            if (!pending) return propertyMap;
+            limit = (limit == 0) ? 1 : limit * 2;
         }
     }
 
-    private static Map<String, String> buildFinalPropertyMap (List<Map<String, Object>> correlations) {
-        Map<String, String> propertyMap = new HashMap<>();
+    private static class Resolved {
+        private final Class type;
+        private final TableSchema schema;
+        private final AtomicReferenceArray<Map<String, String>> propertyMaps =
+                new AtomicReferenceArray<>(ColumnSet.values().length);
+        private volatile MySQLA_rowMapper rowMapper;
+        private final Map<Map<String, String>, MySQLA_rowMapper<?>> rowMappers = new ConcurrentHashMap<>();
+
+        private Resolved(Class type, TableSchema schema) {
+            this.type = type;
+            this.schema = schema;
+        }
 
-        // ---> Order correlations by best correlations (lowest Levenstein value)
-        correlations = correlations.stream()
-                .sorted(Comparator.comparingInt(o -> (Integer) o.get("levenstein")))
-                .collect(Collectors.toList());
+        private Map<String, String> getPropertyMap(ColumnSet set) {
+            Map<String, String> propertyMap = propertyMaps.get(set.ordinal());
+            if (propertyMap != null) return propertyMap;
+
+            // ---> Concurrent first uses may both correlate, the first result is kept.
+            List<String> columns = (set == ColumnSet.ALL) ? schema.columnNames
+                    : (set == ColumnSet.UPDATABLE) ? schema.updatableColumns
+                    : schema.updatableColumnsWithPrimaryKey;
+            propertyMap = Collections.unmodifiableMap(correlate(type, columns, schema));
+            if (!propertyMaps.compareAndSet(set.ordinal(), null, propertyMap))
+                return propertyMaps.get(set.ordinal());
+            MySQLA_loggers.logInfo("CORRELATIONS - Saving new column/field correlation between table '"
+                    + schema.table + "' and model '" + type.getName() + "': " + propertyMap);
+            return propertyMap;
+        }
 
-        // ---> Iterate on correlations list to build final property correlation Hashmap
-        for (Map<String, Object> entry : correlations) {
-            if (!propertyMap.containsKey(entry.get("column")) && !propertyMap.containsValue(entry.get("field"))) {
-                propertyMap.put((String) entry.get("column"), (String) entry.get("field"));
+        private MySQLA_rowMapper getRowMapper() {
+            MySQLA_rowMapper mapper = rowMapper;
+            if (mapper == null) {
+                mapper = getRowMapper(getPropertyMap(ColumnSet.ALL));
+                rowMapper = mapper;
             }
+            return mapper;
         }
 
-        return propertyMap;
+        @SuppressWarnings("unchecked")
+        private MySQLA_rowMapper<?> getRowMapper(Map<String, String> propertyMap) {
+            return rowMappers.computeIfAbsent(propertyMap, k -> MySQLA_rowMapper.build(type, propertyMap, schema));
+        }
     }
 }
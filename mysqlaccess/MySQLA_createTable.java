@@ -4,8 +4,20 @@ import java.sql.*;
 
 public class MySQLA_createTable {
 
-    public static boolean createTable(Connection conn, String database, String tableName, String[] tableConfig,
-                                      OnComplete<String> callback) {
+    public static boolean createTable(MySQLA_connectionPool pool, String database, String tableName,
+                                      String[] tableConfig, OnComplete<String> callback) {
+
+        // ---> Borrow a pooled connection for the duration of the operation.
+        Connection conn = pool.getConnection();
+        try {
+            return createTableOnConnection(conn, database, tableName, tableConfig, callback);
+        } finally {
+            pool.releaseConnection(conn);
+        }
+    }
+
+    private static boolean createTableOnConnection(Connection conn, String database, String tableName,
+                                                   String[] tableConfig, OnComplete<String> callback) {
 
         // ---> If no connection has been established, abort.
         if (!MySQLA_validators.hasConnection(conn)) {
@@ -31,9 +43,7 @@ public class MySQLA_createTable {
         }
 
         // ---> Check if table already exists.
-        try {
-            DatabaseMetaData mtd = conn.getMetaData();
-            ResultSet resultset = mtd.getTables(null, null, tableName, null);
+        try (ResultSet resultset = conn.getMetaData().getTables(null, null, tableName, null)) {
             if (resultset.next()) {
                 MySQLA_loggers.logError("CREATE_TABLE - Table '" + tableName + "' already existed at database '"
                         + database + "'.");
@@ -56,10 +66,9 @@ public class MySQLA_createTable {
         query = query.replaceAll(", $", "") + ")";
 
         // ---> Execute table creation query on connection.
-        try {
-            MySQLA_loggers.logInfo("CREATE_TABLE - Executing query at '" + database + "' database: " + query);
-            PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
-            ps.executeUpdate();
+        MySQLA_loggers.logInfo("CREATE_TABLE - Executing query at '" + database + "' database: " + query);
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate(query);
         } catch (SQLException e) {
             MySQLA_loggers.logError("CREATE_TABLE - Failed to create new table '" + tableName + "' at database '"
                     + database + "'.");
@@ -69,9 +78,7 @@ public class MySQLA_createTable {
         }
 
         // ---> Check if table was properly created.
-        try {
-            DatabaseMetaData mtd = conn.getMetaData();
-            ResultSet resultset = mtd.getTables(null, null, tableName, null);
+        try (ResultSet resultset = conn.getMetaData().getTables(null, null, tableName, null)) {
             if (resultset.next()) {
                 MySQLA_loggers.logInfo("CREATE_TABLE - Table '" + tableName + "' @ '"
                         + database + "' successfully created.");
@@ -95,16 +102,27 @@ public class MySQLA_createTable {
         return true;
     }
 
-    public static void createTableParallel(Connection conn, String database, String tableName, String[] tableConfig,
-                                           OnComplete<String> callback) {
-        Thread t = new Thread(() -> {
-            createTable(conn, database, tableName, tableConfig,
-                    callback);
-        });
-        t.start();
+    public static void createTableParallel(MySQLA_connectionPool pool, MySQLA_executor executor, String database,
+                                           String tableName, String[] tableConfig, OnComplete<String> callback) {
+        executor.execute(
+                () -> createTable(pool, database, tableName, tableConfig, callback),
+                () -> { if (callback != null) callback.onFailure(); });
     }
 
-    public static boolean dropTable(Connection conn, String database, String tableName, OnComplete<String> callback) {
+    public static boolean dropTable(MySQLA_connectionPool pool, String database, String tableName,
+                                    OnComplete<String> callback) {
+
+        // ---> Borrow a pooled connection for the duration of the operation.
+        Connection conn = pool.getConnection();
+        try {
+            return dropTableOnConnection(conn, database, tableName, callback);
+        } finally {
+            pool.releaseConnection(conn);
+        }
+    }
+
+    private static boolean dropTableOnConnection(Connection conn, String database, String tableName,
+                                                 OnComplete<String> callback) {
 
         // ---> If no connection has been established, abort.
         if (!MySQLA_validators.hasConnection(conn)) {
@@ -122,9 +140,7 @@ public class MySQLA_createTable {
         }
 
         // ---> Check if table already exists.
-        try {
-            DatabaseMetaData mtd = conn.getMetaData();
-            ResultSet resultset = mtd.getTables(null, null, tableName, null);
+        try (ResultSet resultset = conn.getMetaData().getTables(null, null, tableName, null)) {
             if (!resultset.next()) {
                 MySQLA_loggers.logError("DROP_TABLE - Table '" + tableName + "' @ '"
                         + database + "' doesn't exist.");
@@ -141,10 +157,9 @@ public class MySQLA_createTable {
 
         // ---> Execute table drop query.
         String query = "drop table  " + tableName;
-        try {
-            MySQLA_loggers.logInfo("DROP_TABLE - Executing query at '" + database + "' database: " + query);
-            PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
-            ps.executeUpdate();
+        MySQLA_loggers.logInfo("DROP_TABLE - Executing query at '" + database + "' database: " + query);
+        try (Statement st = conn.createStatement()) {
+            st.executeUpdate(query);
         } catch (SQLException e) {
             MySQLA_loggers.logError("DROP_TABLE - Failed to drop table '" + tableName + "' at database '"
                     + database + "'.");
@@ -154,9 +169,7 @@ public class MySQLA_createTable {
         }
 
         // ---> Check if table was properly dropped.
-        try {
-            DatabaseMetaData mtd = conn.getMetaData();
-            ResultSet resultset = mtd.getTables(null, null, tableName, null);
+        try (ResultSet resultset = conn.getMetaData().getTables(null, null, tableName, null)) {
             if (!resultset.next()) {
                 MySQLA_loggers.logInfo("DROP_TABLE - Table '" + tableName + "' @ '"
                         + database + "' successfully deleted.");
@@ -179,11 +192,10 @@ public class MySQLA_createTable {
         return true;
     }
 
-    public static void dropTableParallel(Connection conn, String database, String tableName,
-                                         OnComplete<String> callback) {
-        Thread t = new Thread(() -> {
-            dropTable(conn, database, tableName, callback);
-        });
-        t.start();
+    public static void dropTableParallel(MySQLA_connectionPool pool, MySQLA_executor executor, String database,
+                                         String tableName, OnComplete<String> callback) {
+        executor.execute(
+                () -> dropTable(pool, database, tableName, callback),
+                () -> { if (callback != null) callback.onFailure(); });
     }
 }
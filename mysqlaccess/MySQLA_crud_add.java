@@ -1,13 +1,30 @@
 package com.company.mysqlaccess;
 
+import com.company.mysqlaccess.models.TableSchema;
+
 import java.sql.*;
 import java.util.*;
 
 public class MySQLA_crud_add {
 
-    public static <T> Object addMain (T element, Connection conn, String database, String table,
+    // ---> Maximum amount of placeholders MySQL accepts on a single prepared statement.
+    private static final int MAX_PLACEHOLDERS = 65535;
+
+    public static <T> Object addMain (T element, MySQLA_connectionPool pool, String database, String table,
                                     OnComplete<Object> callback) {
 
+        // ---> Borrow a pooled connection for the duration of the operation.
+        Connection conn = pool.getConnection();
+        try {
+            return addOnConnection(element, pool, conn, database, table, callback);
+        } finally {
+            pool.releaseConnection(conn);
+        }
+    }
+
+    private static <T> Object addOnConnection (T element, MySQLA_connectionPool pool, Connection conn,
+                                               String database, String table, OnComplete<Object> callback) {
+
         // ---> If no connection has been established, abort.
         if (!MySQLA_validators.hasConnection(conn)) {
             MySQLA_loggers.logError("ADD - Unable to execute command because there is no connection to '" +
@@ -25,64 +42,150 @@ public class MySQLA_crud_add {
         }
 
         // ---> Get table properties of not already present
-        MySQLA_tableProperties.updateTableProperties(database, conn, table);
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, conn, table);
 
         // ---> If unable to fetch table details, abort
-        if (!MySQLA_validators.hasFetchedTableDetails(database, table)) {
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
             MySQLA_loggers.logError("ADD - Could not fetch table details from database.");
             if (callback != null) callback.onFailure();
             return null;
         }
 
-        // ---> Build SQL query
-        String query = buildSQLQuery(element, database, table);
+        // ---> Build or get parameterized SQL statement shape
+        MySQLA_statementShape shape = getStatementShape(element.getClass(), schema);
 
         // ---> Execute query on connection
-        return executeQueryOnConnection(conn, database, table, query, callback);
+        return executeQueryOnConnection(pool, conn, database, table, shape, element, callback);
+    }
+
+    public static <T> void addMainParallel (T element, MySQLA_connectionPool pool, MySQLA_executor executor,
+                                            String database, String table, OnComplete<Object> callback) {
+        executor.execute(
+                () -> addMain(element, pool, database, table, callback),
+                () -> { if (callback != null) callback.onFailure(); });
     }
 
-    public static <T> void addMainParallel (T element, Connection conn, String database, String table,
-                                      OnComplete<Object> callback) {
+    public static <T> List<Object> addAllMain (Collection<T> elements, MySQLA_connectionPool pool, String database,
+                                               String table, int maxRows, int maxBytes,
+                                               OnComplete<List<Object>> callback) {
 
-        Thread t = new Thread( () -> {
-            addMain(element, conn, database, table, callback);
-        });
-        t.start();
+        // ---> Borrow a pooled connection for the duration of the whole batch.
+        Connection conn = pool.getConnection();
+        try {
+            return addAllOnConnection(elements, pool, conn, database, table, maxRows, maxBytes, callback);
+        } finally {
+            pool.releaseConnection(conn);
+        }
     }
 
-    private static <T> String buildSQLQuery (T element, String database, String table) {
+    private static <T> List<Object> addAllOnConnection (Collection<T> elements, MySQLA_connectionPool pool,
+                                                        Connection conn, String database, String table,
+                                                        int maxRows, int maxBytes,
+                                                        OnComplete<List<Object>> callback) {
+
+        // ---> If no connection has been established, abort.
+        if (!MySQLA_validators.hasConnection(conn)) {
+            MySQLA_loggers.logError("ADDALL - Unable to execute command because there is no connection to '" +
+                    database + "' database.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> If no table is selected, abort.
+        if (!MySQLA_validators.isTableSelected(table)) {
+            MySQLA_loggers.logError("ADDALL - No table selected on database '" + database
+                    + "'. Use setTable(..tablename..) " + "before executing mysqlaccess commands.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Nothing to insert, report an empty key list.
+        if (elements == null || elements.isEmpty()) {
+            MySQLA_loggers.logInfo("ADDALL - No elements to write to table '" + table + "'.");
+            List<Object> keys = new ArrayList<>();
+            if (callback != null) callback.onSuccess(keys);
+            return keys;
+        }
+
+        // ---> All elements must share the same model, since they are bound against the same statement.
+        Class type = null;
+        for (T element : elements) {
+            if (element != null && type == null) type = element.getClass();
+            if (element == null || element.getClass() != type) {
+                MySQLA_loggers.logError("ADDALL - All elements must be non null instances of "
+                        + (type == null ? "the same model" : "'" + type.getSimpleName() + "'") + ".");
+                if (callback != null) callback.onFailure();
+                return null;
+            }
+        }
+
+        // ---> Get table properties of not already present
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, conn, table);
+
+        // ---> If unable to fetch table details, abort
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
+            MySQLA_loggers.logError("ADDALL - Could not fetch table details from database.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Build or get the single row statement shape, multi row statements repeat its values tuple.
+        MySQLA_statementShape shape = getStatementShape(type, schema);
+        if (shape == null) {
+            MySQLA_loggers.logError("ADDALL - Unable to build insert statement for table '" + table + "'.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Execute batch on connection
+        return executeBatchOnConnection(pool, conn, database, table, shape, elements, maxRows, maxBytes, callback);
+    }
+
+    public static <T> void addAllMainParallel (Collection<T> elements, MySQLA_connectionPool pool,
+                                               MySQLA_executor executor, String database, String table,
+                                               int maxRows, int maxBytes, OnComplete<List<Object>> callback) {
+        executor.execute(
+                () -> addAllMain(elements, pool, database, table, maxRows, maxBytes, callback),
+                () -> { if (callback != null) callback.onFailure(); });
+    }
+
+    static MySQLA_statementShape getStatementShape (Class type, TableSchema schema) {
+
+        // ---> Check if this statement has been previously built and return from memory if so.
+        String database = schema.database;
+        String table = schema.table;
+        String shapeKey = MySQLA_statementShape.getKey("ADD", type, database, table);
+        MySQLA_statementShape shape = MySQLA_statementShape.get(shapeKey, schema);
+        if (shape != null) return shape;
 
         // ---> Figure out best correlation between database column names and model fields
         Map<String, String> propertyMap = MySQLA_correlations.getColumnFieldCorrelation(
-                element.getClass(),
-                MySQLA_tableProperties.getUpdateableColumns(database, table),
-                database,
-                table
-        );
-
-        // ---> Build SQL query
-        String query = "";
-        String columns = "";
-        String values = "";
-
-        for (Map.Entry<String, String> entry : propertyMap.entrySet()) {
-            String columnType = MySQLA_tableProperties.getColumnType(database, table, entry.getKey());
-            columns += entry.getKey() + ", ";
-            try { values += MySQLA_orm.getSQLString(element, entry.getValue(), columnType) + ", "; }
-            catch (Exception e) { e.printStackTrace(); }
-        }
+                type,
+                schema,
+                MySQLA_correlations.ColumnSet.UPDATABLE);
 
-        columns = columns.replaceAll(", $", "");
-        values = values.replaceAll(", $", "");
-        query = "insert into " + table + " (" + columns + ") values (" + values + ")";
-        return query;
+        // ---> Build SQL query with one placeholder per column
+        List<String> columns = new ArrayList<>(propertyMap.keySet());
+        String query = "insert into " + table + " (" + String.join(", ", columns) + ") values ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        return MySQLA_statementShape.put(shapeKey,
+                MySQLA_statementShape.build(query, type, schema, columns, propertyMap));
     }
 
-    private static Object executeQueryOnConnection (Connection conn, String database, String table,
-                                                     String query, OnComplete<Object> callback) {
+    private static <T> Object executeQueryOnConnection (MySQLA_connectionPool pool, Connection conn,
+                                                        String database, String table, MySQLA_statementShape shape,
+                                                        T element, OnComplete<Object> callback) {
+        if (shape == null) {
+            MySQLA_loggers.logError("ADD - Unable to build insert statement for table '" + table + "'.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        String query = shape.sql;
         try {
             MySQLA_loggers.logInfo("ADD - Executing query at '" + table +"': " + query);
-            PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
+            PreparedStatement ps = pool.prepareStatement(conn, query, Statement.RETURN_GENERATED_KEYS);
+            shape.bind(ps, element);
             int result = ps.executeUpdate();
             if (result == 0) {
                 MySQLA_loggers.logError("ADD - Failed to obtain insertion confirmation on table '" + table
@@ -104,11 +207,13 @@ public class MySQLA_crud_add {
                         + "' with auto-generated key: " + key);
             }
 
-            MySQLA_cache.deleteCache(database, table);
+            // ---> Only cached results that may hold the new row are invalidated.
+            MySQLA_cache.invalidateWrittenRows(database, table,
+                    Collections.singletonList(getRowKey(getKeyIndex(database, table, shape), shape, element, key)));
             if (callback != null) callback.onSuccess(key);
             return key;
 
-        } catch (SQLException e) {
+        } catch (SQLException | IllegalAccessException e) {
             MySQLA_loggers.logError("ADD - Failed to create new row on table '" + table + "'. Query: '"
                     + query + "'");
             System.err.println(e.getMessage());
@@ -116,4 +221,120 @@ public class MySQLA_crud_add {
             return null;
         }
     }
+
+    private static <T> List<Object> executeBatchOnConnection (MySQLA_connectionPool pool, Connection conn,
+                                                              String database, String table,
+                                                              MySQLA_statementShape shape, Collection<T> elements,
+                                                              int maxRows, int maxBytes,
+                                                              OnComplete<List<Object>> callback) {
+
+        // ---> Rows per statement are bounded by config and by the 65535 placeholders a statement may hold.
+        int rowLimit = Math.max(1, Math.min(maxRows, MAX_PLACEHOLDERS / Math.max(1, shape.getParameterCount())));
+        List<Object> keys = new ArrayList<>(elements.size());
+        List<T> chunk = new ArrayList<>();
+        int chunkBytes = 0;
+        int statements = 0;
+
+        MySQLA_loggers.logInfo("ADDALL - Writing " + elements.size() + " row(s) to table '" + table
+                + "' in a single transaction: " + shape.sql);
+        try {
+            conn.setAutoCommit(false);
+            try {
+                for (T element : elements) {
+                    int rowBytes = (maxBytes > 0) ? shape.estimateSize(element) : 0;
+
+                    // ---> Flush current chunk before it grows past the row or byte limits.
+                    if (!chunk.isEmpty() && (chunk.size() >= rowLimit
+                            || (maxBytes > 0 && chunkBytes + rowBytes > maxBytes))) {
+                        insertChunk(pool, conn, shape, chunk, rowLimit, keys);
+                        statements++;
+                        chunk.clear();
+                        chunkBytes = 0;
+                    }
+                    chunk.add(element);
+                    chunkBytes += rowBytes;
+                }
+                insertChunk(pool, conn, shape, chunk, rowLimit, keys);
+                statements++;
+                conn.commit();
+            } catch (SQLException | IllegalAccessException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            MySQLA_loggers.logInfo("ADDALL - Successfully written " + keys.size() + " row(s) to table '" + table
+                    + "' using " + statements + " statement(s).");
+
+            // ---> Invalidate cached results that may hold the new rows, once for the whole batch.
+            List<Object> rowKeys = new ArrayList<>(keys.size());
+            int keyIndex = getKeyIndex(database, table, shape);
+            int index = 0;
+            for (T element : elements) {
+                rowKeys.add(getRowKey(keyIndex, shape, element, keys.get(index++)));
+            }
+            MySQLA_cache.invalidateWrittenRows(database, table, rowKeys);
+            if (callback != null) callback.onSuccess(keys);
+            return keys;
+
+        } catch (SQLException | IllegalAccessException e) {
+            MySQLA_loggers.logError("ADDALL - Failed to write " + elements.size() + " row(s) to table '" + table
+                    + "', batch has been rolled back.");
+            System.err.println(e.getMessage());
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+    }
+
+    private static <T> void insertChunk (MySQLA_connectionPool pool, Connection conn, MySQLA_statementShape shape,
+                                         List<T> chunk, int rowLimit, List<Object> keys)
+            throws SQLException, IllegalAccessException {
+
+        // ---> Repeat the values tuple once per row.
+        int columns = shape.getParameterCount();
+        String tuple = "(" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+        String query = shape.sql + String.join("", Collections.nCopies(chunk.size() - 1, ", " + tuple));
+
+        // ---> Full size chunks repeat the same SQL and are worth caching, odd sized ones would only
+        // ---> push frequently used statements out of the connection's cache.
+        boolean cacheable = chunk.size() == rowLimit;
+        PreparedStatement ps = cacheable
+                ? pool.prepareStatement(conn, query, Statement.RETURN_GENERATED_KEYS)
+                : conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
+        try {
+            for (int x = 0; x < chunk.size(); x++) {
+                shape.bind(ps, chunk.get(x), x * columns);
+            }
+            int result = ps.executeUpdate();
+            if (result < chunk.size()) {
+                throw new SQLException("Insertion confirmed for " + result + " out of " + chunk.size()
+                        + " row(s).");
+            }
+
+            // ---> Keys come back in insertion order, tables without auto-generated keys report null.
+            int received = 0;
+            try (ResultSet generatedObjects = ps.getGeneratedKeys()) {
+                while (received < chunk.size() && generatedObjects.next()) {
+                    keys.add(generatedObjects.getObject(1));
+                    received++;
+                }
+            }
+            for (; received < chunk.size(); received++) keys.add(null);
+        } finally {
+            if (!cacheable) ps.close();
+        }
+    }
+
+    private static int getKeyIndex (String database, String table, MySQLA_statementShape shape) {
+        return shape.indexOf(MySQLA_tableProperties.getPrimaryKey(database, table));
+    }
+
+    private static <T> Object getRowKey (int keyIndex, MySQLA_statementShape shape, T element,
+                                         Object generatedKey) throws IllegalAccessException {
+
+        // ---> Auto-generated key if any, otherwise the primary key value sent along with the row.
+        if (generatedKey != null) return generatedKey;
+        return (keyIndex == -1) ? null : shape.getValue(element, keyIndex);
+    }
 }
@@ -1,14 +1,28 @@
 package com.company.mysqlaccess;
 
+import com.company.mysqlaccess.models.TableSchema;
+
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
 
 public class MySQLA_crud_delete {
 
-    public static Integer deleteMain (Connection conn, String database, String table, String sqlWhere,
+    public static Integer deleteMain (MySQLA_connectionPool pool, String database, String table, String sqlWhere,
                                       OnComplete<Integer> callback) {
 
+        // ---> Borrow a pooled connection for the duration of the operation.
+        Connection conn = pool.getConnection();
+        try {
+            return deleteOnConnection(pool, conn, database, table, sqlWhere, callback);
+        } finally {
+            pool.releaseConnection(conn);
+        }
+    }
+
+    private static Integer deleteOnConnection (MySQLA_connectionPool pool, Connection conn, String database,
+                                               String table, String sqlWhere, OnComplete<Integer> callback) {
+
         // ---> If no connection has been established, abort.
         if (!MySQLA_validators.hasConnection(conn)) {
             MySQLA_loggers.logError("DELETE - Unable to execute command because there is no connection to '" +
@@ -26,10 +40,10 @@ public class MySQLA_crud_delete {
         }
 
         // ---> Get table properties of not already present
-        MySQLA_tableProperties.updateTableProperties(database, conn, table);
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, conn, table);
 
         // ---> If unable to fetch table details, abort
-        if (!MySQLA_validators.hasFetchedTableDetails(database, table)) {
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
             MySQLA_loggers.logError("DELETE - Could not fetch table details from database.");
             if (callback != null) callback.onFailure();
             return null;
@@ -39,23 +53,22 @@ public class MySQLA_crud_delete {
         String query = "delete from " + table + " where " + sqlWhere;
 
         // ---> Execute query on connection
-        return executeQueryOnConnection(conn, database, table, query, callback);
+        return executeQueryOnConnection(conn, database, table, sqlWhere, query, callback);
     }
 
-    public static void deleteMainParallel (Connection conn, String database, String table, String sqlWhere,
-                                      OnComplete<Integer> callback) {
-        Thread t = new Thread( () -> {
-            deleteMain(conn, database, table, sqlWhere, callback);
-        });
-        t.start();
+    public static void deleteMainParallel (MySQLA_connectionPool pool, MySQLA_executor executor, String database,
+                                           String table, String sqlWhere, OnComplete<Integer> callback) {
+        executor.execute(
+                () -> deleteMain(pool, database, table, sqlWhere, callback),
+                () -> { if (callback != null) callback.onFailure(); });
     }
 
     private static Integer executeQueryOnConnection (Connection conn, String database, String table,
-                                                    String query, OnComplete<Integer> callback) {
-        // ---> Execute query on connection
-        try {
-            Statement st = conn.createStatement();
-            MySQLA_loggers.logInfo("DELETE - Executing query at '" + table +"': " + query);
+                                                     String sqlWhere, String query,
+                                                     OnComplete<Integer> callback) {
+        // ---> Execute query on connection, on a plain statement since the filter is ad-hoc text with nothing to bind.
+        MySQLA_loggers.logInfo("DELETE - Executing query at '" + table +"': " + query);
+        try (Statement st = conn.createStatement()) {
             int result = st.executeUpdate(query);
 
             if (result == 0) {
@@ -65,7 +78,9 @@ public class MySQLA_crud_delete {
             }
 
             MySQLA_loggers.logInfo("DELETE - Successfully deleted " + result + " row(s).");
-            MySQLA_cache.deleteCache(database, table);
+            // ---> When deleting by primary key, results not holding the deleted rows stay cached.
+            MySQLA_cache.invalidateDeletedRows(database, table, MySQLA_cacheKeys.getFilterKeys(
+                    MySQLA_tableProperties.getPrimaryKey(database, table), sqlWhere));
             if (callback != null) callback.onSuccess(result);
             return result;
 
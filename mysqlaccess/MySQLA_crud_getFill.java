@@ -1,26 +1,23 @@
 package com.company.mysqlaccess;
 
 import com.company.mysqlaccess.models.MySQLAConfig;
+import com.company.mysqlaccess.models.TableSchema;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class MySQLA_crud_getFill {
 
-    public static <T> List<T> getFillMain(Class<T> type, Connection conn, String database, String table,
-                                          String[] IdColumns, String[] tablesToJoin, String sqlWhereFilter,
+    public static <T> List<T> getFillMain(Class<T> type, MySQLA_connectionPool pool, MySQLA_executor executor,
+                                          String database, String table, String[] IdColumns, String[] tablesToJoin,
+                                          String sqlWhereFilter, MySQLAConfig.FillStrategy strategy, int batchSize,
                                           OnGetComplete<T> callback) {
 
         List<T> returnData = new ArrayList<>();
 
-        // ---> If no connection has been established, abort.
-        if (!MySQLA_validators.hasConnection(conn)) {
-            MySQLA_loggers.logError("Unable to execute 'GETFILL' command because there is no connection to '" +
-                    database + "' database.");
-            if (callback != null) callback.onFailure();
-            return returnData;
-        }
-
         // ---> If no table is selected, abort.
         if (!MySQLA_validators.isTableSelected(table)) {
             MySQLA_loggers.logError("No table selected on database '" + database + "'. Use setTable(..tablename..) " +
@@ -52,38 +49,33 @@ public class MySQLA_crud_getFill {
         }
 
         // ---> Get table properties if not already present.
-        MySQLA_tableProperties.updateTableProperties(database, conn, table);
-        for (String tableToJoinName : tablesToJoin) {
-            MySQLA_tableProperties.updateTableProperties(database, conn, tableToJoinName);
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, pool, table);
+        TableSchema[] joinSchemas = new TableSchema[tablesToJoin.length];
+        for (int x = 0; x < tablesToJoin.length; x++) {
+            joinSchemas[x] = MySQLA_tableProperties.updateTableProperties(database, pool, tablesToJoin[x]);
         }
 
         // ---> If unable to fetch details for one or more tables, abort.
-        if (!MySQLA_validators.hasFetchedTableDetails(database, table)) {
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
             MySQLA_loggers.logError("Could not fetch table details from database.");
             if (callback != null) callback.onFailure();
             return returnData;
         }
-        for (String tableToJoinName : tablesToJoin) {
-            if (!MySQLA_validators.hasFetchedTableDetails(database, tableToJoinName)) {
+        for (TableSchema joinSchema : joinSchemas) {
+            if (!MySQLA_validators.hasFetchedTableDetails(joinSchema)) {
                 MySQLA_loggers.logError("Could not fetch table details from database.");
                 if (callback != null) callback.onFailure();
                 return returnData;
             }
         }
 
-        // ---> Calculate column/field correlation from joined column names
-        List<String> allColumns = new ArrayList<>(
-                MySQLA_tableProperties.getAllColumns(database, table));
-        for (String tableName : tablesToJoin) {
-            allColumns.addAll(MySQLA_tableProperties.getAllColumns(database, tableName));
-        }
-        Map<String, String> propertyMap = MySQLA_correlations.getColumnFieldCorrelation(type,
-                allColumns, database, table);
+        // ---> Get join plan (correlation, mapper and SQL), compiled once per model, tables and reference columns.
+        MySQLA_joinPlan<T> joinPlan = MySQLA_joinPlan.get(type, schema, joinSchemas, IdColumns);
 
         // ---> Build SQL query
-        String query = buildSQLQuery(database, table, IdColumns, tablesToJoin, sqlWhereFilter, propertyMap);
+        String query = joinPlan.getQuery(sqlWhereFilter);
 
-        // ---> Retrieve data from cache if caching is enabled and available
+        // ---> Retrieve data from cache if caching is enabled and available, no connection is needed for it.
         List<T> cacheData = MySQLA_cache.isCacheAvailable(database, table, query);
         if (cacheData != null) {
             for (T t : cacheData) MySQLA_loggers.logDetails(t.toString());
@@ -91,73 +83,294 @@ public class MySQLA_crud_getFill {
             return cacheData;
         };
 
-        // ---> Execute query on connection
-        ResultSet resultSet = null;
-        try {
-            Statement st = conn.createStatement();
-            MySQLA_loggers.logInfo("Executing getFill query at '" + table +"': " + query);
-            resultSet = st.executeQuery(query);
+        // ---> Both strategies produce the same result, which is cached under the join query either way. A filter may
+        // ---> refer to joined columns, which batch loading can't see, so filtered calls always join. AUTO joins until
+        // ---> a load has shown batch loading pays off for this plan.
+        boolean auto = strategy == MySQLAConfig.FillStrategy.AUTO;
+        if (sqlWhereFilter != null && strategy == MySQLAConfig.FillStrategy.BATCH) {
+            MySQLA_loggers.logInfo("GETFILL - Filter may refer to joined tables, loading table '" + table
+                    + "' on a join instead of in batches.");
+        }
+        boolean batch = sqlWhereFilter == null && (strategy == MySQLAConfig.FillStrategy.BATCH
+                || (auto && Boolean.TRUE.equals(joinPlan.preferBatch)));
+        BatchPlan<T> plan = !batch ? null : new BatchPlan<>(joinPlan, pool, executor, sqlWhereFilter, query,
+                Math.max(1, batchSize));
+
+        // ---> Execute query (once for concurrent identical calls) and build list from retrieved data. Only the leading
+        // ---> call borrows a pooled connection, the ones waiting on it hold none.
+        List<T> loadedData = MySQLA_cache.loadOnce(database, table, query, () -> {
+            Connection conn = pool.getConnection();
+            try {
+                // ---> If no connection has been established, abort.
+                if (!MySQLA_validators.hasConnection(conn)) {
+                    MySQLA_loggers.logError("Unable to execute 'GETFILL' command because there is no connection to '"
+                            + database + "' database.");
+                    return null;
+                }
+                return batch ? loadBatchOnConnection(plan, conn) : loadOnConnection(joinPlan, pool, conn, query, auto);
+            } finally {
+                pool.releaseConnection(conn);
+            }
+        });
+        if (loadedData == null) {
+            if (callback != null) callback.onFailure();
+            return returnData;
+        };
+
+        if (callback != null) callback.onSuccess(loadedData);
+        return loadedData;
+    }
+
+    private static <T> List<T> loadOnConnection(MySQLA_joinPlan<T> joinPlan, MySQLA_connectionPool pool,
+                                                Connection conn, String query, boolean measure) {
+
+        // ---> Execute query on connection and build list from retrieved data. The unfiltered join is constant and
+        // ---> kept prepared, filtered ones are ad-hoc text.
+        String database = joinPlan.schema.database;
+        String table = joinPlan.schema.table;
+        List<T> returnData = new ArrayList<>();
+        boolean isBuilt;
+        long loadStart = System.nanoTime();
+        MySQLA_loggers.logInfo("Executing getFill query at '" + table +"': " + query);
+        try (ResultSet resultSet = pool.executeQuery(conn, query, query.equals(joinPlan.getQuery(null)))) {
+            isBuilt = MySQLA_listBuilder.buildListFromRetrievedData(joinPlan.mapper, resultSet, returnData);
 
         } catch (SQLException e) {
             MySQLA_loggers.logError("Unable to create connection statement.");
-            if (callback != null) callback.onFailure();
             e.printStackTrace();
-            return returnData;
+            return null;
         }
+        if (!isBuilt) return null;
+        if (measure) measureJoinedRows(joinPlan, returnData);
 
-        // ---> Build list from retrieved data
-        if (!MySQLA_listBuilder.buildListFromRetrievedData(type, resultSet, returnData, propertyMap)) {
-            if (callback != null) callback.onFailure();
-            return returnData;
-        };
+        // ---> Store result to cache if available.
+        MySQLA_cache.storeToCache(database, table, query, returnData, joinPlan.mapper, System.nanoTime() - loadStart,
+                null, null, () -> pool.withConnection(c -> loadOnConnection(joinPlan, pool, c, query, measure)));
+        return returnData;
+    }
+
+    private static <T> List<T> loadBatchOnConnection(BatchPlan<T> plan, Connection conn) {
+
+        // ---> Abort if model can't be instantiated.
+        MySQLA_joinPlan<T> joinPlan = plan.joinPlan;
+        String table = joinPlan.schema.table;
+        String database = joinPlan.schema.database;
+        MySQLA_rowMapper<T> mapper = joinPlan.mapper;
+        if (mapper == null) return null;
+        int joins = joinPlan.joinSchemas.length;
+        List<String> mainColumns = joinPlan.mainColumns;
+        List<List<Integer>> joinedIndexes = joinPlan.joinedIndexes;
 
-        // ---> Store result to cache if available and return.
-        MySQLA_cache.storeToCache(database, table, query, returnData);
-        if (callback != null) callback.onSuccess(returnData);
+        // ---> Load main rows along with their reference columns, collecting the distinct keys to look up.
+        long loadStart = System.nanoTime();
+        String query = joinPlan.getMainQuery(plan.sqlWhereFilter);
+
+        List<T> returnData = new ArrayList<>();
+        List<Object[]> rowKeys = new ArrayList<>();
+        List<Map<String, Object>> distinctKeys = new ArrayList<>();
+        for (int y = 0; y < joins; y++) distinctKeys.add(new LinkedHashMap<>());
+        MySQLA_loggers.logInfo("GETFILL - Executing batch fill main query at '" + table + "': " + query);
+        try (ResultSet resultSet = plan.pool.executeQuery(conn, query, plan.sqlWhereFilter == null)) {
+            int[] columnIndexes = mapper.getColumnIndexes(resultSet, mainColumns);
+            while (resultSet.next()) {
+                T data = MySQLA_listBuilder.buildObjectFromRow(mapper, resultSet, columnIndexes);
+                if (data == null) return null;
+                returnData.add(data);
+                Object[] keys = new Object[joins];
+                for (int y = 0; y < joins; y++) {
+                    keys[y] = resultSet.getObject(mainColumns.size() + y + 1);
+                    if (keys[y] != null) distinctKeys.get(y).putIfAbsent(MySQLA_cacheKeys.normalize(
+                            keys[y].toString()), keys[y]);
+                }
+                rowKeys.add(keys);
+            }
+        } catch (SQLException e) {
+            MySQLA_loggers.logError("GETFILL - Unable to load main rows from table '" + table + "'.");
+            e.printStackTrace();
+            return null;
+        }
+
+        // ---> Look up joined rows by primary key in chunks, only on tables holding any of the mapped columns.
+        List<Chunk> chunks = new ArrayList<>();
+        List<Map<String, Object[]>> related = new ArrayList<>();
+        for (int y = 0; y < joins; y++) {
+            related.add(new ConcurrentHashMap<>());
+            if (joinedIndexes.get(y).isEmpty()) continue;
+            List<Object> keys = new ArrayList<>(distinctKeys.get(y).values());
+            for (int from = 0; from < keys.size(); from += plan.batchSize) {
+                chunks.add(new Chunk(y, keys.subList(from, Math.min(keys.size(), from + plan.batchSize))));
+            }
+        }
+        if (!readChunks(plan, mapper, conn, chunks, joinedIndexes, related)) return null;
+
+        // ---> Stitch joined values into every main row, rows without a match are left as a left join would.
+        int references = 0;
+        int lookups = 0;
+        for (int x = 0; x < returnData.size(); x++) {
+            for (int y = 0; y < joins; y++) {
+                Object key = rowKeys.get(x)[y];
+                if (key == null || joinedIndexes.get(y).isEmpty()) continue;
+                references++;
+                Object[] values = related.get(y).get(MySQLA_cacheKeys.normalize(key.toString()));
+                if (values == null) continue;
+                for (int z = 0; z < values.length; z++) {
+                    int index = joinedIndexes.get(y).get(z);
+                    if (values[z] == null && mapper.getFieldType(index).isPrimitive()) continue;
+                    mapper.setValue(returnData.get(x), index, values[z]);
+                }
+            }
+        }
+        for (int y = 0; y < joins; y++) if (!joinedIndexes.get(y).isEmpty()) lookups += distinctKeys.get(y).size();
+        MySQLA_loggers.logInfo("GETFILL - Batch filled " + returnData.size() + " row(s) from table '" + table
+                + "' with " + lookups + " joined row lookup(s) in " + chunks.size() + " chunk(s).");
+
+        preferBatch(joinPlan, references, lookups);
+
+        // ---> Store result to cache if available.
+        MySQLA_cache.storeToCache(database, table, plan.query, returnData, mapper, System.nanoTime() - loadStart,
+                null, null, () -> plan.pool.withConnection(c -> loadBatchOnConnection(plan, c)));
         return returnData;
     }
 
-    public static <T> void getFillMainParallel(Class<T> type, Connection conn, String database, String table,
-                                          String[] IdColumns, String[] tablesToJoin, String sqlWhereFilter,
-                                          OnGetComplete<T> callback) {
-        Thread t = new Thread( () -> {
-            getFillMain(type, conn, database, table, IdColumns, tablesToJoin, sqlWhereFilter, callback);
-        });
-        t.start();
+    private static <T> void measureJoinedRows(MySQLA_joinPlan<T> joinPlan, List<T> rows) {
+
+        // ---> Joined rows aren't identified on a join result, rows holding the same joined values count as one.
+        MySQLA_rowMapper<T> mapper = joinPlan.mapper;
+        int references = 0;
+        int lookups = 0;
+        for (List<Integer> indexes : joinPlan.joinedIndexes) {
+            if (indexes.isEmpty()) continue;
+            Set<List<Object>> distinct = new HashSet<>();
+            for (T row : rows) {
+                List<Object> values = new ArrayList<>(indexes.size());
+                for (int index : indexes) values.add(mapper.getValue(row, index));
+                if (values.stream().allMatch(Objects::isNull)) continue;
+                references++;
+                distinct.add(values);
+            }
+            lookups += distinct.size();
+        }
+        preferBatch(joinPlan, references, lookups);
     }
 
-    private static <T> String buildSQLQuery (String database, String table,
-                                             String[] IdColumns, String[] tablesToJoin, String sqlWhereFilter,
-                                             Map<String, String> propertyMap) {
-        // ---> Build SQL query
-        String from = " from " + table + " ";
-        String join = "";
-        for (int x = 0; x<tablesToJoin.length; x++) {
-            String tableToJoinPrimaryKey =
-                    MySQLA_tableProperties.getPrimaryKey(database, tablesToJoin[x]);
-            join += "left join " + tablesToJoin[x] + " on " + table + "." + IdColumns[x] + "=" + tablesToJoin[x] + "." +
-                    tableToJoinPrimaryKey + " ";
+    private static void preferBatch(MySQLA_joinPlan<?> joinPlan, int references, int lookups) {
+
+        // ---> Batch loading pays off when joined rows are shared by several main rows, remember it for AUTO.
+        boolean preferBatch = references >= 2 * lookups;
+        if (!Boolean.valueOf(preferBatch).equals(joinPlan.preferBatch)) {
+            MySQLA_loggers.logInfo("GETFILL - " + references + " reference(s) to " + lookups + " joined row(s) on '"
+                    + joinPlan.schema.table + "', AUTO strategy will load "
+                    + (preferBatch ? "in batches." : "on a join."));
         }
+        joinPlan.preferBatch = preferBatch;
+    }
 
-        String where = "where " + sqlWhereFilter + " ";
-        String query = "select ";
+    private static <T> boolean readChunks(BatchPlan<T> plan, MySQLA_rowMapper<T> mapper, Connection conn,
+                                          List<Chunk> chunks, List<List<Integer>> joinedIndexes,
+                                          List<Map<String, Object[]>> related) {
+        if (chunks.isEmpty()) return true;
 
-        for (Map.Entry<String, String> entry : propertyMap.entrySet()) {
-            if (MySQLA_tableProperties.getAllColumns(database, table).contains(entry.getKey())) {
-                query += table + "." + entry.getKey() + ", ";
-            }
-            else {
-                for (String tableName : tablesToJoin) {
-                    if (MySQLA_tableProperties.getAllColumns(database, tableName).contains(entry.getKey())) {
-                        query += tableName + "." + entry.getKey() + ", ";
-                        break;
+        // ---> Chunks are taken from a shared queue by this thread, on its own connection, and by helpers running on
+        // ---> the executor, each on a pooled connection. Helpers only take a connection that is free right away, and
+        // ---> give up otherwise, so this thread never waits on helpers stuck waiting for the pool.
+        Queue<Chunk> queue = new ConcurrentLinkedQueue<>(chunks);
+        int helpers = Math.min(chunks.size() - 1, Runtime.getRuntime().availableProcessors());
+        for (int x = 0; x < helpers; x++) {
+            plan.executor.execute(() -> plan.pool.tryWithConnection(c -> drainChunks(plan, mapper, c, queue,
+                    joinedIndexes, related)), () -> {});
+        }
+        drainChunks(plan, mapper, conn, queue, joinedIndexes, related);
+
+        boolean successful = true;
+        for (Chunk chunk : chunks) successful &= chunk.done.join();
+        return successful;
+    }
+
+    private static <T> Void drainChunks(BatchPlan<T> plan, MySQLA_rowMapper<T> mapper, Connection conn,
+                                        Queue<Chunk> queue, List<List<Integer>> joinedIndexes,
+                                        List<Map<String, Object[]>> related) {
+        Chunk chunk;
+        while ((chunk = queue.poll()) != null) {
+            chunk.done.complete(readChunk(plan, mapper, conn, chunk, joinedIndexes.get(chunk.join),
+                    related.get(chunk.join)));
+        }
+        return null;
+    }
+
+    private static <T> boolean readChunk(BatchPlan<T> plan, MySQLA_rowMapper<T> mapper, Connection conn,
+                                         Chunk chunk, List<Integer> indexes, Map<String, Object[]> related) {
+
+        // ---> Key list is padded up to a power of two by repeating the last key, so only a handful of statement
+        // ---> texts exist per joined table and all of them stay in the statement cache.
+        TableSchema joinSchema = plan.joinPlan.joinSchemas[chunk.join];
+        int size = Integer.highestOneBit(chunk.keys.size());
+        if (size < chunk.keys.size()) size = Math.min(plan.batchSize, size << 1);
+        List<String> columns = plan.joinPlan.joinedColumns.get(chunk.join);
+        String query = plan.joinPlan.getLookupQuery(chunk.join, size);
+
+        try {
+            PreparedStatement ps = plan.pool.prepareStatement(conn, query, Statement.NO_GENERATED_KEYS);
+            for (int x = 0; x < size; x++) ps.setObject(x + 1, chunk.keys.get(Math.min(x, chunk.keys.size() - 1)));
+            try (ResultSet resultSet = ps.executeQuery()) {
+                int[] columnIndexes = mapper.getColumnIndexes(resultSet, columns);
+                while (resultSet.next()) {
+                    Object key = resultSet.getObject(1);
+                    if (key == null) continue;
+                    Object[] values = new Object[indexes.size()];
+                    for (int x = 0; x < values.length; x++) {
+                        int columnIndex = columnIndexes[indexes.get(x)];
+                        if (columnIndex != 0) values[x] = mapper.readValue(indexes.get(x), resultSet, columnIndex);
                     }
+                    related.put(MySQLA_cacheKeys.normalize(key.toString()), values);
                 }
             }
+            return true;
+
+        } catch (SQLException | RuntimeException e) {
+            MySQLA_loggers.logError("GETFILL - Unable to load rows from joined table '" + joinSchema.table + "': "
+                    + e.getMessage());
+            return false;
         }
+    }
+
+    public static <T> void getFillMainParallel(Class<T> type, MySQLA_connectionPool pool, MySQLA_executor executor,
+                                               String database, String table, String[] IdColumns,
+                                               String[] tablesToJoin, String sqlWhereFilter,
+                                               MySQLAConfig.FillStrategy strategy, int batchSize,
+                                               OnGetComplete<T> callback) {
+        executor.execute(
+                () -> getFillMain(type, pool, executor, database, table, IdColumns, tablesToJoin, sqlWhereFilter,
+                        strategy, batchSize, callback),
+                () -> { if (callback != null) callback.onFailure(); });
+    }
 
-        query = query.replaceAll(", $", "");
-        query += from + join + (sqlWhereFilter == null ? "" : where);
-        return query;
+    private static class Chunk {
+        private final int join;
+        private final List<Object> keys;
+        private final CompletableFuture<Boolean> done = new CompletableFuture<>();
+
+        private Chunk(int join, List<Object> keys) {
+            this.join = join;
+            this.keys = keys;
+        }
+    }
+
+    private static class BatchPlan<T> {
+        private final MySQLA_joinPlan<T> joinPlan;
+        private final MySQLA_connectionPool pool;
+        private final MySQLA_executor executor;
+        private final String sqlWhereFilter;
+        private final String query;
+        private final int batchSize;
+
+        private BatchPlan(MySQLA_joinPlan<T> joinPlan, MySQLA_connectionPool pool, MySQLA_executor executor,
+                          String sqlWhereFilter, String query, int batchSize) {
+            this.joinPlan = joinPlan;
+            this.pool = pool;
+            this.executor = executor;
+            this.sqlWhereFilter = sqlWhereFilter;
+            this.query = query;
+            this.batchSize = batchSize;
+        }
     }
 }
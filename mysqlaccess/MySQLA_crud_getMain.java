@@ -1,5 +1,7 @@
 package com.company.mysqlaccess;
 
+import com.company.mysqlaccess.models.TableSchema;
+
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -7,19 +9,11 @@ import java.util.Map;
 
 public class MySQLA_crud_getMain {
 
-    public static <T> List<T> getMain(Class<T> type, Connection conn, String database, String table,
+    public static <T> List<T> getMain(Class<T> type, MySQLA_connectionPool pool, String database, String table,
                                       String sqlWhereFilter, OnGetComplete<T> callback) {
 
         List<T> returnData = new ArrayList<>();
 
-        // ---> If no connection has been established, abort.
-        if (!MySQLA_validators.hasConnection(conn)) {
-            MySQLA_loggers.logError("GET - Unable to execute command because there is no connection to '" +
-                    database + "' database.");
-            if (callback != null) callback.onFailure();
-            return null;
-        }
-
         // ---> If no table is selected, abort.
         if (!MySQLA_validators.isTableSelected(table)) {
             MySQLA_loggers.logError("GET - No table selected on database '" + database
@@ -29,10 +23,10 @@ public class MySQLA_crud_getMain {
         }
 
         // ---> Get table properties if not already present.
-        MySQLA_tableProperties.updateTableProperties(database, conn, table);
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, pool, table);
 
         // ---> If table properties could not be fetched, abort
-        if (!MySQLA_validators.hasFetchedTableDetails(database, table)) {
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
             MySQLA_loggers.logError("GET - Could not fetch table details from database.");
             if (callback != null) callback.onFailure();
             return null;
@@ -41,14 +35,13 @@ public class MySQLA_crud_getMain {
         // ---> Build or get column/field correlation map
         Map<String, String> propertyMap = MySQLA_correlations.getColumnFieldCorrelation(
                 type,
-                MySQLA_tableProperties.getAllColumns(database, table),
-                database,
-                table);
+                schema,
+                MySQLA_correlations.ColumnSet.ALL);
 
         // ---> Build SQL query
-        String query = buildSQLQuery(table, sqlWhereFilter, propertyMap);
+        String query = buildSQLQuery(type, schema, sqlWhereFilter, propertyMap);
 
-        // ---> Retrieve data from cache if caching is enabled and available
+        // ---> Retrieve data from cache if caching is enabled and available, no connection is needed for it.
         List<T> cacheData = null;
         cacheData = MySQLA_cache.isCacheAvailable(database, table, query);
         if (cacheData != null) {
@@ -56,53 +49,94 @@ public class MySQLA_crud_getMain {
             return cacheData;
         };
 
-        // ---> Execute query on connection
-        ResultSet resultSet = executeQueryOnConnection(conn, table, query, callback);
-
-        // ---> Build list from retrieved data
-        if (!MySQLA_listBuilder.buildListFromRetrievedData(type, resultSet, returnData, propertyMap)) {
+        // ---> Execute query (once for concurrent identical calls) and build list from retrieved data. Only the leading
+        // ---> call borrows a pooled connection, the ones waiting on it hold none.
+        List<T> loadedData = MySQLA_cache.loadOnce(database, table, query, () -> {
+            Connection conn = pool.getConnection();
+            try {
+                // ---> If no connection has been established, abort.
+                if (!MySQLA_validators.hasConnection(conn)) {
+                    MySQLA_loggers.logError("GET - Unable to execute command because there is no connection to '" +
+                            database + "' database.");
+                    return null;
+                }
+                return loadOnConnection(type, pool, conn, database, table, sqlWhereFilter, query,
+                        MySQLA_correlations.getRowMapper(type, schema));
+            } finally {
+                pool.releaseConnection(conn);
+            }
+        });
+        if (loadedData == null) {
             if (callback != null) callback.onFailure();
             return returnData;
         };
 
-        // ---> Store result to cache if available and return.
-        MySQLA_cache.storeToCache(database, table, query, returnData);
-        if (callback != null) callback.onSuccess(returnData);
+        if (callback != null) callback.onSuccess(loadedData);
+        return loadedData;
+    }
+
+    private static <T> List<T> loadOnConnection(Class<T> type, MySQLA_connectionPool pool, Connection conn,
+                                                String database, String table, String sqlWhereFilter, String query,
+                                                MySQLA_rowMapper<T> mapper) {
+
+        // ---> Execute query on connection and build list from retrieved data
+        List<T> returnData = new ArrayList<>();
+        long loadStart = System.nanoTime();
+        boolean prepared = sqlWhereFilter == null;
+        if (!executeQueryOnConnection(pool, conn, table, query, prepared, returnData, mapper)) return null;
+
+        // ---> Store result to cache if available.
+        long loadTime = System.nanoTime() - loadStart;
+        if (MySQLA_cache.isCacheable(database, table)) {
+            String primaryKey = MySQLA_tableProperties.getPrimaryKey(database, table);
+            MySQLA_cache.storeToCache(database, table, query, returnData, mapper, loadTime,
+                    MySQLA_cacheKeys.getFilterKeys(primaryKey, sqlWhereFilter),
+                    MySQLA_cacheKeys.getResultKeys(mapper, primaryKey, returnData),
+                    () -> pool.withConnection(c -> loadOnConnection(type, pool, c, database, table, sqlWhereFilter,
+                            query, mapper)));
+        }
         return returnData;
     }
 
-    public static <T> void getMainParallel(Class<T> type, Connection conn, String database, String table,
-                                      String sqlWhereFilter, OnGetComplete<T> callback) {
-        Thread t = new Thread( () -> {
-            getMain(type, conn, database, table, sqlWhereFilter, callback);
-        });
-        t.start();
+    public static <T> void getMainParallel(Class<T> type, MySQLA_connectionPool pool, MySQLA_executor executor,
+                                           String database, String table, String sqlWhereFilter,
+                                           OnGetComplete<T> callback) {
+        executor.execute(
+                () -> getMain(type, pool, database, table, sqlWhereFilter, callback),
+                () -> { if (callback != null) callback.onFailure(); });
     }
 
-    private static <T> String buildSQLQuery (String table, String sqlWhereFilter, Map<String, String> propertyMap) {
+    static <T> String buildSQLQuery (Class<T> type, TableSchema schema, String sqlWhereFilter,
+                                     Map<String, String> propertyMap) {
+
+        // ---> Select clause only depends on model and table details, build it once.
+        String table = schema.table;
+        String shapeKey = MySQLA_statementShape.getKey("GET", type, schema.database, table);
+        MySQLA_statementShape shape = MySQLA_statementShape.get(shapeKey, schema);
+        if (shape == null) {
+            List<String> columns = new ArrayList<>(propertyMap.keySet());
+            String columnNames = columns.size() == 0 ? "*" : String.join(", ", columns);
+            shape = MySQLA_statementShape.put(shapeKey,
+                    new MySQLA_statementShape(schema, "select " + columnNames + " from " + table));
+        }
 
         // ---> Build SQL query
-        List<String> columns = new ArrayList<>(propertyMap.keySet());
-        String columnNames = columns == null || columns.size() == 0 ? "*" : String.join(", ", columns);
-        String query = "select " + columnNames + " from " + table;
-        if (sqlWhereFilter != null) query += " where " + sqlWhereFilter;
-        return query;
+        if (sqlWhereFilter == null) return shape.sql;
+        return shape.sql + " where " + sqlWhereFilter;
     }
 
-    private static <T> ResultSet executeQueryOnConnection (Connection conn, String table,
-                                                    String query, OnGetComplete<T> callback) {
-        // ---> Execute query on connection
-        ResultSet resultSet = null;
-        try {
-            Statement st = conn.createStatement();
-            MySQLA_loggers.logInfo("GET - Executing get query at '" + table +"': " + query);
-            resultSet = st.executeQuery(query);
+    private static <T> boolean executeQueryOnConnection (MySQLA_connectionPool pool, Connection conn, String table,
+                                                         String query, boolean prepared, List<T> returnData,
+                                                         MySQLA_rowMapper<T> mapper) {
+        // ---> Execute query on connection, kept prepared unless it holds a custom filter.
+        MySQLA_loggers.logInfo("GET - Executing get query at '" + table +"': " + query);
+        try (ResultSet resultSet = pool.executeQuery(conn, query, prepared)) {
+            return MySQLA_listBuilder.buildListFromRetrievedData(mapper, resultSet, returnData);
 
         } catch (SQLException e) {
             MySQLA_loggers.logError("GET - Unable to create connection statement.");
-            if (callback != null) callback.onFailure();
             e.printStackTrace();
+            return false;
         }
-        return resultSet;
     }
 }
@@ -1,25 +1,20 @@
 package com.company.mysqlaccess;
 
+import com.company.mysqlaccess.models.Metrics;
+import com.company.mysqlaccess.models.TableSchema;
+
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.*;
 
 public class MySQLA_crud_getMetrics {
 
-    public static Number getMetrics(Connection conn, String database, String table, String column,
+    public static Number getMetrics(MySQLA_connectionPool pool, String database, String table, String column,
                                     String operation, String sqlWhereFilter, OnComplete<Number> callback) {
 
         Object returnData = null;
 
-        // ---> If no connection has been established, abort.
-        if (!MySQLA_validators.hasConnection(conn)) {
-            MySQLA_loggers.logError("Unable to execute 'GETMETRICS' command because there is no connection to '" +
-                    database + "' database.");
-            if (callback != null) callback.onFailure();
-            return null;
-        }
-
         // ---> If no table is selected, abort.
         if (!MySQLA_validators.isTableSelected(table)) {
             MySQLA_loggers.logError("No table selected on database '" + database + "'. Use setTable(..tablename..) " +
@@ -29,10 +24,10 @@ public class MySQLA_crud_getMetrics {
         }
 
         // ---> Get table properties if not already present.
-        MySQLA_tableProperties.updateTableProperties(database, conn, table);
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, pool, table);
 
         // ---> If unable to fetch table details, abort
-        if (!MySQLA_validators.hasFetchedTableDetails(database, table)) {
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
             MySQLA_loggers.logError("Could not fetch table details from database.");
             if (callback != null) callback.onFailure();
             return null;
@@ -40,11 +35,11 @@ public class MySQLA_crud_getMetrics {
 
         // ---> If no column has been passed, use primary key as default
         if (column == null) {
-            column = MySQLA_tableProperties.getPrimaryKey(database, table);
+            column = schema.primaryKey;
         }
 
         // ---> If column is non-existent, abort.
-        if (!MySQLA_tableProperties.getAllColumns(database, table).contains(column)) {
+        if (!schema.hasColumn(column)) {
             MySQLA_loggers.logError("GETMETRICS - Column '" + column + "' on table '" + table + "' @ '"
                     + database + "' could not be found.");
             if (callback != null) callback.onFailure();
@@ -55,7 +50,7 @@ public class MySQLA_crud_getMetrics {
         String query = "select " + operation + "(" + column + ") from " + table + " " +
                 (sqlWhereFilter == null ? "" : ("where " + sqlWhereFilter));
 
-        // ---> Retrieve data from cache if caching is enabled and available
+        // ---> Retrieve data from cache if caching is enabled and available, no connection is needed for it.
         returnData = MySQLA_cache.isNumberCacheAvailable(database, table, query);
         if (returnData != null) {
             logResult(table, column, operation, sqlWhereFilter, returnData);
@@ -63,34 +58,185 @@ public class MySQLA_crud_getMetrics {
             return (Number) returnData;
         }
 
-        // ---> Execute query on connection
-        ResultSet resultSet = null;
-        try {
-            Statement st = conn.createStatement();
-            resultSet = st.executeQuery(query);
+        // ---> Execute query, once for concurrent identical calls (SQL NULL results are empty). Only the leading call
+        // ---> borrows a pooled connection, the ones waiting on it hold none.
+        Optional<Object> loadedData = MySQLA_cache.loadOnce(database, table, query, () -> {
+            Connection conn = pool.getConnection();
+            try {
+                // ---> If no connection has been established, abort.
+                if (!MySQLA_validators.hasConnection(conn)) {
+                    MySQLA_loggers.logError("Unable to execute 'GETMETRICS' command because there is no connection to '"
+                            + database + "' database.");
+                    return null;
+                }
+                return loadOnConnection(pool, conn, database, table, query, sqlWhereFilter == null);
+            } finally {
+                pool.releaseConnection(conn);
+            }
+        });
+        if (loadedData == null) {
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+        returnData = loadedData.orElse(null);
+
+        logResult(table, column, operation, sqlWhereFilter, returnData);
+        if (callback != null) callback.onSuccess((Number) returnData);
+        return (Number) returnData;
+    }
+
+    private static Optional<Object> loadOnConnection(MySQLA_connectionPool pool, Connection conn, String database,
+                                                     String table, String query, boolean prepared) {
+        Object returnData;
+
+        // ---> Execute query on connection, kept prepared unless it holds a custom filter.
+        long loadStart = System.nanoTime();
+        try (ResultSet resultSet = pool.executeQuery(conn, query, prepared)) {
             resultSet.next();
             returnData = resultSet.getObject(1);
         } catch (SQLException e) {
             MySQLA_loggers.logError("Unable to create connection statement.");
-            if (callback != null) callback.onFailure();
             e.printStackTrace();
             return null;
         }
 
-        logResult(table, column, operation, sqlWhereFilter, returnData);
+        // ---> Store result to cache if available.
+        MySQLA_cache.storeToCache(database, table, query, returnData, null, System.nanoTime() - loadStart, null, null,
+                () -> pool.withConnection(c -> loadOnConnection(pool, c, database, table, query, prepared)));
+        return Optional.ofNullable(returnData);
+    }
 
-        // ---> Store result to cache if available and return.
-        MySQLA_cache.storeToCache(database, table, query, returnData);
-        if (callback != null) callback.onSuccess((Number) returnData);
-        return (Number) returnData;
+    public static void getMetricsParallel(MySQLA_connectionPool pool, MySQLA_executor executor, String database,
+                                          String table, String column, String operation, String sqlWhereFilter,
+                                          OnComplete<Number> callback) {
+        executor.execute(
+                () -> getMetrics(pool, database, table, column, operation, sqlWhereFilter, callback),
+                () -> { if (callback != null) callback.onFailure(); });
     }
 
-    public static void getMetricsParallel(Connection conn, String database, String table, String column,
-                                    String operation, String sqlWhereFilter, OnComplete<Number> callback) {
-        Thread t = new Thread( () -> {
-            getMetrics(conn, database, table, column, operation, sqlWhereFilter, callback);
+    public static Metrics getMultipleMetrics(MySQLA_connectionPool pool, String database, String table,
+                                             String column, String sqlWhereFilter, Metrics.Aggregate[] aggregates,
+                                             OnComplete<Metrics> callback) {
+
+        // ---> If no table is selected, abort.
+        if (!MySQLA_validators.isTableSelected(table)) {
+            MySQLA_loggers.logError("GETMETRICS - No table selected on database '" + database
+                    + "'. Use setTable(..tablename..) before executing mysqlaccess commands.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Get table properties if not already present.
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, pool, table);
+
+        // ---> If unable to fetch table details, abort
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
+            MySQLA_loggers.logError("GETMETRICS - Could not fetch table details from database.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> If no column has been passed, use primary key as default
+        if (column == null) {
+            column = schema.primaryKey;
+        }
+
+        // ---> If column is non-existent, abort.
+        if (!schema.hasColumn(column)) {
+            MySQLA_loggers.logError("GETMETRICS - Column '" + column + "' on table '" + table + "' @ '"
+                    + database + "' could not be found.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Every aggregate at most once and in a fixed order, so the same set always builds the same query.
+        // ---> No aggregates means all of them.
+        EnumSet<Metrics.Aggregate> requested = EnumSet.noneOf(Metrics.Aggregate.class);
+        if (aggregates != null) {
+            for (Metrics.Aggregate aggregate : aggregates) if (aggregate != null) requested.add(aggregate);
+        }
+        if (requested.isEmpty()) requested = EnumSet.allOf(Metrics.Aggregate.class);
+
+        // ---> Build query, aliases keep it apart from single metric queries on the cache.
+        StringJoiner select = new StringJoiner(", ");
+        for (Metrics.Aggregate aggregate : requested) {
+            select.add(aggregate.name() + "(" + column + ") as " + aggregate.name().toLowerCase());
+        }
+        String query = "select " + select + " from " + table + " " +
+                (sqlWhereFilter == null ? "" : ("where " + sqlWhereFilter));
+
+        // ---> Retrieve data from cache if caching is enabled and available, no connection is needed for it.
+        Metrics returnData = MySQLA_cache.isMetricsCacheAvailable(database, table, query);
+        if (returnData != null) {
+            MySQLA_loggers.logDetails("GETMETRICS - " + returnData + " (Table: '" + table + "')");
+            if (callback != null) callback.onSuccess(returnData);
+            return returnData;
+        }
+
+        // ---> Execute query, once for concurrent identical calls. Only the leading call borrows a pooled connection,
+        // ---> the ones waiting on it hold none.
+        String metricsColumn = column;
+        Set<Metrics.Aggregate> metricsAggregates = requested;
+        returnData = MySQLA_cache.loadOnce(database, table, query, () -> {
+            Connection conn = pool.getConnection();
+            try {
+                // ---> If no connection has been established, abort.
+                if (!MySQLA_validators.hasConnection(conn)) {
+                    MySQLA_loggers.logError("GETMETRICS - Unable to execute command because there is no connection "
+                            + "to '" + database + "' database.");
+                    return null;
+                }
+                return loadMultipleOnConnection(pool, conn, database, table, metricsColumn, metricsAggregates, query,
+                        sqlWhereFilter == null);
+            } finally {
+                pool.releaseConnection(conn);
+            }
         });
-        t.start();
+        if (returnData == null) {
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        MySQLA_loggers.logDetails("GETMETRICS - " + returnData + " (Table: '" + table + "')");
+        if (callback != null) callback.onSuccess(returnData);
+        return returnData;
+    }
+
+    private static Metrics loadMultipleOnConnection(MySQLA_connectionPool pool, Connection conn, String database,
+                                                    String table, String column,
+                                                    Set<Metrics.Aggregate> aggregates, String query,
+                                                    boolean prepared) {
+        Map<Metrics.Aggregate, Number> values = new EnumMap<>(Metrics.Aggregate.class);
+
+        // ---> Execute query on connection, all aggregates come on a single row. Kept prepared unless it holds a
+        // ---> custom filter.
+        long loadStart = System.nanoTime();
+        MySQLA_loggers.logInfo("GETMETRICS - Executing query at '" + table + "': " + query);
+        try (ResultSet resultSet = pool.executeQuery(conn, query, prepared)) {
+            resultSet.next();
+            int index = 1;
+            for (Metrics.Aggregate aggregate : aggregates) values.put(aggregate, (Number) resultSet.getObject(index++));
+        } catch (SQLException | ClassCastException e) {
+            MySQLA_loggers.logError("GETMETRICS - Unable to fetch metrics of column '" + column + "' on table '"
+                    + table + "': " + e.getMessage());
+            return null;
+        }
+        Metrics returnData = new Metrics(column, values);
+
+        // ---> Store result to cache if available.
+        MySQLA_cache.storeToCache(database, table, query, returnData, null, System.nanoTime() - loadStart, null, null,
+                () -> pool.withConnection(c -> loadMultipleOnConnection(pool, c, database, table, column, aggregates,
+                        query, prepared)));
+        return returnData;
+    }
+
+    public static void getMultipleMetricsParallel(MySQLA_connectionPool pool, MySQLA_executor executor,
+                                                  String database, String table, String column,
+                                                  String sqlWhereFilter, Metrics.Aggregate[] aggregates,
+                                                  OnComplete<Metrics> callback) {
+        executor.execute(
+                () -> getMultipleMetrics(pool, database, table, column, sqlWhereFilter, aggregates, callback),
+                () -> { if (callback != null) callback.onFailure(); });
     }
 
     private static void logResult(String table, String column, String operation, String sqlWhereFilter,
@@ -0,0 +1,221 @@
+package com.company.mysqlaccess;
+
+import com.company.mysqlaccess.models.TableSchema;
+
+import java.sql.*;
+import java.util.*;
+
+public class MySQLA_crud_getPage {
+
+    public static <T> List<T> getPageMain(Class<T> type, MySQLA_connectionPool pool, String database, String table,
+                                          Object afterKey, int limit, String sqlWhereFilter,
+                                          OnGetComplete<T> callback) {
+
+        // ---> Borrow a pooled connection for the duration of the operation.
+        Connection conn = pool.getConnection();
+        try {
+            return getPageOnConnection(type, pool, conn, database, table, afterKey, limit, sqlWhereFilter, callback);
+        } finally {
+            pool.releaseConnection(conn);
+        }
+    }
+
+    public static <T> void getPageMainParallel(Class<T> type, MySQLA_connectionPool pool, MySQLA_executor executor,
+                                               String database, String table, Object afterKey, int limit,
+                                               String sqlWhereFilter, OnGetComplete<T> callback) {
+        executor.execute(
+                () -> getPageMain(type, pool, database, table, afterKey, limit, sqlWhereFilter, callback),
+                () -> { if (callback != null) callback.onFailure(); });
+    }
+
+    public static <T> Iterable<List<T>> pagesMain(Class<T> type, MySQLA_connectionPool pool, String database,
+                                                  String table, int limit, String sqlWhereFilter) {
+        return () -> new PageIterator<>(type, pool, database, table, limit, sqlWhereFilter);
+    }
+
+    private static <T> List<T> getPageOnConnection(Class<T> type, MySQLA_connectionPool pool, Connection conn,
+                                                   String database, String table, Object afterKey, int limit,
+                                                   String sqlWhereFilter, OnGetComplete<T> callback) {
+
+        // ---> If no connection has been established, abort.
+        if (!MySQLA_validators.hasConnection(conn)) {
+            MySQLA_loggers.logError("PAGE - Unable to execute command because there is no connection to '" +
+                    database + "' database.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> If no table is selected, abort.
+        if (!MySQLA_validators.isTableSelected(table)) {
+            MySQLA_loggers.logError("PAGE - No table selected on database '" + database
+                    + "'. Use setTable(..tablename..) before executing mysqlaccess commands.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> If page size is not positive, abort.
+        if (limit <= 0) {
+            MySQLA_loggers.logError("PAGE - Page size must be greater than zero, got " + limit + ".");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Get table properties if not already present.
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, conn, table);
+
+        // ---> If table properties could not be fetched, abort
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
+            MySQLA_loggers.logError("PAGE - Could not fetch table details from database.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Pages are sought on the primary key, tables without one can't be paged.
+        if (schema.primaryKey == null) {
+            MySQLA_loggers.logError("PAGE - Table '" + table + "' has no primary key to page on.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Seeking past a single column of a composite key would skip rows sharing it, so refuse those tables.
+        if (schema.compositePrimaryKey) {
+            MySQLA_loggers.logError("PAGE - Table '" + table + "' has a composite primary key, only single column "
+                    + "primary keys can be paged on.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Build or get column/field correlation map
+        Map<String, String> propertyMap = MySQLA_correlations.getColumnFieldCorrelation(
+                type,
+                schema,
+                MySQLA_correlations.ColumnSet.ALL);
+
+        // ---> Get precompiled mapper for this model and correlation, abort if model can't be instantiated.
+        MySQLA_rowMapper<T> mapper = MySQLA_correlations.getRowMapper(type, schema);
+        if (mapper == null) {
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Build SQL query
+        String query = buildSQLQuery(type, schema, afterKey != null, sqlWhereFilter, propertyMap);
+
+        // ---> Execute query on connection
+        List<T> returnData = new ArrayList<>();
+        MySQLA_loggers.logInfo("PAGE - Executing page query at '" + table +"' after key '" + afterKey + "': "
+                + query);
+        try {
+            PreparedStatement ps = pool.prepareStatement(conn, query, Statement.NO_GENERATED_KEYS);
+            int parameter = 1;
+            if (afterKey != null) ps.setObject(parameter++, afterKey);
+            ps.setInt(parameter, limit);
+            try (ResultSet resultSet = ps.executeQuery()) {
+                if (!MySQLA_listBuilder.buildListFromRetrievedData(mapper, resultSet, returnData)) {
+                    if (callback != null) callback.onFailure();
+                    return null;
+                }
+            }
+
+        } catch (SQLException e) {
+            MySQLA_loggers.logError("PAGE - Unable to fetch page from table '" + table + "'.");
+            e.printStackTrace();
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        if (callback != null) callback.onSuccess(returnData);
+        return returnData;
+    }
+
+    static <T> String buildSQLQuery(Class<T> type, TableSchema schema, boolean hasAfterKey, String sqlWhereFilter,
+                                    Map<String, String> propertyMap) {
+
+        // ---> Same select clause as a regular get. Key and page size are bound as parameters, so the statement text
+        // ---> only depends on the filter and whether it is the first page, and every page reuses the same statement.
+        String primaryKey = schema.primaryKey;
+        StringBuilder query = new StringBuilder(MySQLA_crud_getMain.buildSQLQuery(type, schema, null, propertyMap));
+        if (sqlWhereFilter != null) query.append(" where (").append(sqlWhereFilter).append(")");
+        if (hasAfterKey) query.append(sqlWhereFilter == null ? " where " : " and ").append(primaryKey).append(" > ?");
+        return query.append(" order by ").append(primaryKey).append(" limit ?").toString();
+    }
+
+    // ---> Thrown from within the iterator when a page cannot be fetched, the cause has already been logged.
+    public static class PageException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private PageException(String message) {
+            super(message);
+        }
+    }
+
+    private static class PageIterator<T> implements Iterator<List<T>> {
+        private final Class<T> type;
+        private final MySQLA_connectionPool pool;
+        private final String database;
+        private final String table;
+        private final int limit;
+        private final String sqlWhereFilter;
+        private Object afterKey = null;
+        private List<T> next = null;
+        private boolean exhausted = false;
+
+        private PageIterator(Class<T> type, MySQLA_connectionPool pool, String database, String table, int limit,
+                             String sqlWhereFilter) {
+            this.type = type;
+            this.pool = pool;
+            this.database = database;
+            this.table = table;
+            this.limit = limit;
+            this.sqlWhereFilter = sqlWhereFilter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) return true;
+            if (exhausted) return false;
+
+            // ---> Each page seeks right after the last key of the previous one, a connection is only held meanwhile.
+            List<T> page = getPageMain(type, pool, database, table, afterKey, limit, sqlWhereFilter, null);
+            if (page == null) {
+                exhausted = true;
+                throw new PageException("Unable to fetch page from table '" + table + "' after key '" + afterKey
+                        + "'.");
+            }
+            if (page.size() < limit) exhausted = true;
+            if (page.isEmpty()) return false;
+
+            // ---> Next key is read from the last row, so the model must map the primary key.
+            if (!exhausted) {
+                afterKey = getLastKey(page);
+                if (afterKey == null) {
+                    exhausted = true;
+                    throw new PageException("Model '" + type.getName() + "' doesn't map primary key of table '"
+                            + table + "', unable to fetch next page.");
+                }
+            }
+            next = page;
+            return true;
+        }
+
+        @Override
+        public List<T> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            List<T> page = next;
+            next = null;
+            return page;
+        }
+
+        private Object getLastKey(List<T> page) {
+            TableSchema schema = MySQLA_tableProperties.getSchema(database, table);
+            MySQLA_rowMapper<T> mapper = (schema == null) ? null : MySQLA_correlations.getRowMapper(type, schema);
+            int index = (mapper == null) ? -1 : mapper.indexOf(schema.primaryKey);
+            if (index == -1) {
+                MySQLA_loggers.logError("PAGE - Model '" + type.getName() + "' doesn't map primary key of table '"
+                        + table + "'.");
+                return null;
+            }
+            return mapper.getValue(page.get(page.size() - 1), index);
+        }
+    }
+}
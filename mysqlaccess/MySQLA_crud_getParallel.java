@@ -0,0 +1,228 @@
+package com.company.mysqlaccess;
+
+import com.company.mysqlaccess.models.TableSchema;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+public class MySQLA_crud_getParallel {
+
+    public static <T> List<T> getParallelMain(Class<T> type, MySQLA_connectionPool pool, MySQLA_executor executor,
+                                              String database, String table, String sqlWhereFilter, int partitions) {
+
+        // ---> Tables that can't be split are read with a regular get.
+        ScanPlan<T> plan = plan(type, pool, database, table, sqlWhereFilter, partitions);
+        if (plan == null) return null;
+        if (plan.bounds.length == 0) return MySQLA_crud_getMain.getMain(type, pool, database, table, sqlWhereFilter,
+                null);
+
+        // ---> Every range is mapped to its own list, results are merged in key range order.
+        List<List<T>> ranges = new ArrayList<>();
+        for (int x = 0; x <= plan.bounds.length; x++) ranges.add(new ArrayList<>());
+        if (!scan(plan, pool, executor, (index, ps) -> {
+            try (ResultSet resultSet = ps.executeQuery()) {
+                return MySQLA_listBuilder.buildListFromRetrievedData(plan.mapper, resultSet, ranges.get(index));
+            }
+        })) return null;
+
+        int size = 0;
+        for (List<T> range : ranges) size += range.size();
+        List<T> returnData = new ArrayList<>(size);
+        for (List<T> range : ranges) returnData.addAll(range);
+        MySQLA_loggers.logInfo("PARALLEL - Successfully fetched " + size + " row(s) from table '" + table + "' in "
+                + ranges.size() + " range(s).");
+        return returnData;
+    }
+
+    public static <T> Integer forEachParallelMain(Class<T> type, MySQLA_connectionPool pool,
+                                                  MySQLA_executor executor, String database, String table,
+                                                  String sqlWhereFilter, int partitions, Consumer<T> consumer) {
+
+        // ---> Tables that can't be split are streamed with a regular forEach.
+        ScanPlan<T> plan = plan(type, pool, database, table, sqlWhereFilter, partitions);
+        if (plan == null) return null;
+        if (plan.bounds.length == 0) return MySQLA_crud_stream.forEachMain(type, pool, database, table,
+                sqlWhereFilter, consumer);
+
+        // ---> Rows of every range are streamed and handed to the consumer from that range's own thread.
+        AtomicInteger count = new AtomicInteger();
+        if (!scan(plan, pool, executor, (index, ps) -> {
+            ps.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet resultSet = ps.executeQuery()) {
+                int[] columnIndexes = plan.mapper.getColumnIndexes(resultSet);
+                while (resultSet.next()) {
+                    T data = MySQLA_listBuilder.buildObjectFromRow(plan.mapper, resultSet, columnIndexes);
+                    if (data == null) return false;
+                    consumer.accept(data);
+                    count.incrementAndGet();
+                }
+                return true;
+            }
+        })) return null;
+
+        MySQLA_loggers.logInfo("PARALLEL - Successfully processed " + count.get() + " row(s) from table '" + table
+                + "' in " + (plan.bounds.length + 1) + " range(s).");
+        return count.get();
+    }
+
+    private static <T> ScanPlan<T> plan(Class<T> type, MySQLA_connectionPool pool, String database, String table,
+                                        String sqlWhereFilter, int partitions) {
+
+        // ---> If no table is selected, abort.
+        if (!MySQLA_validators.isTableSelected(table)) {
+            MySQLA_loggers.logError("PARALLEL - No table selected on database '" + database
+                    + "'. Use setTable(..tablename..) before executing mysqlaccess commands.");
+            return null;
+        }
+
+        // ---> Get table properties if not already present, abort if they could not be fetched.
+        TableSchema schema = pool.withConnection(conn -> MySQLA_tableProperties.updateTableProperties(database, conn,
+                table));
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
+            MySQLA_loggers.logError("PARALLEL - Could not fetch table details from database.");
+            return null;
+        }
+
+        // ---> Build or get column/field correlation map and precompiled mapper.
+        Map<String, String> propertyMap = MySQLA_correlations.getColumnFieldCorrelation(
+                type,
+                schema,
+                MySQLA_correlations.ColumnSet.ALL);
+        MySQLA_rowMapper<T> mapper = MySQLA_correlations.getRowMapper(type, schema);
+        if (mapper == null) return null;
+        String select = MySQLA_crud_getMain.buildSQLQuery(type, schema, null, propertyMap);
+
+        // ---> Key space can only be split on a numeric primary key.
+        String primaryKey = schema.primaryKey;
+        if (partitions < 2 || primaryKey == null || !schema.numericColumns.contains(primaryKey)) {
+            MySQLA_loggers.logInfo("PARALLEL - Table '" + table + "' can't be split, reading it as a whole.");
+            return new ScanPlan<>(mapper, select, primaryKey, sqlWhereFilter, new BigInteger[0]);
+        }
+
+        // ---> Lowest and highest keys, null if no row matches (or if they could not be fetched).
+        Number min = MySQLA_crud_getMetrics.getMetrics(pool, database, table, primaryKey, "MIN", sqlWhereFilter,
+                null);
+        Number max = (min == null) ? null : MySQLA_crud_getMetrics.getMetrics(pool, database, table, primaryKey,
+                "MAX", sqlWhereFilter, null);
+        if (max == null) return new ScanPlan<>(mapper, select, primaryKey, sqlWhereFilter, new BigInteger[0]);
+
+        // ---> Split points evenly spread between both keys. First and last ranges are left open, so rows added past
+        // ---> either end (or a cached min/max gone stale) are still read.
+        BigInteger low = toBigInteger(min);
+        BigInteger span = toBigInteger(max).subtract(low);
+        int count = span.add(BigInteger.ONE).max(BigInteger.ONE).min(BigInteger.valueOf(partitions)).intValue();
+        BigInteger[] bounds = new BigInteger[count - 1];
+        for (int x = 1; x < count; x++) {
+            bounds[x - 1] = low.add(span.multiply(BigInteger.valueOf(x)).divide(BigInteger.valueOf(count)));
+        }
+        return new ScanPlan<>(mapper, select, primaryKey, sqlWhereFilter, bounds);
+    }
+
+    private static <T> boolean scan(ScanPlan<T> plan, MySQLA_connectionPool pool, MySQLA_executor executor,
+                                    RangeReader reader) {
+
+        // ---> Ranges are taken from a shared queue by this thread, on its own connection, and by helpers running on
+        // ---> the executor, each on a pooled connection. This thread only waits on ranges being read, never on one
+        // ---> nobody has taken, so it can't deadlock when called from a busy executor's own threads.
+        int ranges = plan.bounds.length + 1;
+        Queue<Integer> queue = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int x = 0; x < ranges; x++) {
+            queue.add(x);
+            results.add(new CompletableFuture<>());
+        }
+        for (int x = 1; x < ranges; x++) {
+            executor.execute(() -> pool.withConnection(conn -> drainRanges(plan, conn, queue, results, reader)),
+                    () -> {});
+        }
+
+        // ---> Without a connection of its own, ranges left behind are failed rather than waited for.
+        if (pool.withConnection(conn -> drainRanges(plan, conn, queue, results, reader)) == null) {
+            Integer index;
+            while ((index = queue.poll()) != null) results.get(index).complete(false);
+        }
+
+        boolean successful = true;
+        for (CompletableFuture<Boolean> result : results) successful &= result.join();
+        if (!successful) MySQLA_loggers.logError("PARALLEL - Failed to read every range of the table.");
+        return successful;
+    }
+
+    private static <T> Boolean drainRanges(ScanPlan<T> plan, Connection conn, Queue<Integer> queue,
+                                           List<CompletableFuture<Boolean>> results, RangeReader reader) {
+        Integer index;
+        while ((index = queue.poll()) != null) {
+            boolean successful = false;
+            try {
+                successful = readRange(plan, conn, index, reader);
+            } catch (RuntimeException e) {
+                MySQLA_loggers.logError("PARALLEL - Range " + (index + 1) + "/" + results.size() + " failed: " + e);
+            } finally {
+                results.get(index).complete(successful);
+            }
+        }
+        return true;
+    }
+
+    private static <T> boolean readRange(ScanPlan<T> plan, Connection conn, int index, RangeReader reader) {
+
+        // ---> If no connection has been established, abort.
+        if (!MySQLA_validators.hasConnection(conn)) return false;
+
+        // ---> Bounds are bound as parameters, statement is closed right after the range has been read.
+        String query = plan.getRangeQuery(index);
+        MySQLA_loggers.logInfo("PARALLEL - Executing range " + (index + 1) + "/" + (plan.bounds.length + 1)
+                + " query: " + query);
+        try (PreparedStatement ps = conn.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY)) {
+            int parameter = 1;
+            if (index > 0) ps.setBigDecimal(parameter++, new BigDecimal(plan.bounds[index - 1]));
+            if (index < plan.bounds.length) ps.setBigDecimal(parameter, new BigDecimal(plan.bounds[index]));
+            return reader.read(index, ps);
+
+        } catch (SQLException e) {
+            MySQLA_loggers.logError("PARALLEL - Unable to read range " + (index + 1) + " of the table.");
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static BigInteger toBigInteger(Number value) {
+        return new BigDecimal(value.toString()).toBigInteger();
+    }
+
+    private interface RangeReader {
+        boolean read(int index, PreparedStatement ps) throws SQLException;
+    }
+
+    private static class ScanPlan<T> {
+        private final MySQLA_rowMapper<T> mapper;
+        private final String select;
+        private final String primaryKey;
+        private final String sqlWhereFilter;
+        private final BigInteger[] bounds;
+
+        private ScanPlan(MySQLA_rowMapper<T> mapper, String select, String primaryKey, String sqlWhereFilter,
+                         BigInteger[] bounds) {
+            this.mapper = mapper;
+            this.select = select;
+            this.primaryKey = primaryKey;
+            this.sqlWhereFilter = sqlWhereFilter;
+            this.bounds = bounds;
+        }
+
+        private String getRangeQuery(int index) {
+            List<String> conditions = new ArrayList<>();
+            if (sqlWhereFilter != null) conditions.add("(" + sqlWhereFilter + ")");
+            if (index > 0) conditions.add(primaryKey + " >= ?");
+            if (index < bounds.length) conditions.add(primaryKey + " < ?");
+            return select + " where " + String.join(" and ", conditions);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.company.mysqlaccess;
+
+import com.company.mysqlaccess.models.TableSchema;
+
+import java.sql.*;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class MySQLA_crud_stream {
+
+    public static <T> Stream<T> streamMain(Class<T> type, MySQLA_connectionPool pool, String database, String table,
+                                           String sqlWhereFilter) {
+
+        // ---> Connection stays borrowed while the stream is open, it is released when the stream is closed.
+        Connection conn = pool.getConnection();
+        Stream<T> stream = streamOnConnection(type, pool, conn, database, table, sqlWhereFilter);
+        if (stream == null) pool.releaseConnection(conn);
+        return stream;
+    }
+
+    public static <T> Integer forEachMain(Class<T> type, MySQLA_connectionPool pool, String database, String table,
+                                          String sqlWhereFilter, Consumer<T> consumer) {
+
+        // ---> Hand each row to the consumer as soon as it arrives, closing the stream once done.
+        try (Stream<T> stream = streamMain(type, pool, database, table, sqlWhereFilter)) {
+            if (stream == null) return null;
+            int[] count = {0};
+            stream.forEach(data -> {
+                consumer.accept(data);
+                count[0]++;
+            });
+            MySQLA_loggers.logInfo("STREAM - Successfully processed " + count[0] + " row(s) from table '" + table
+                    + "'.");
+            return count[0];
+
+        } catch (StreamException e) {
+            return null;
+        }
+    }
+
+    private static <T> Stream<T> streamOnConnection(Class<T> type, MySQLA_connectionPool pool, Connection conn,
+                                                    String database, String table, String sqlWhereFilter) {
+
+        // ---> If no connection has been established, abort.
+        if (!MySQLA_validators.hasConnection(conn)) {
+            MySQLA_loggers.logError("STREAM - Unable to execute command because there is no connection to '" +
+                    database + "' database.");
+            return null;
+        }
+
+        // ---> If no table is selected, abort.
+        if (!MySQLA_validators.isTableSelected(table)) {
+            MySQLA_loggers.logError("STREAM - No table selected on database '" + database
+                    + "'. Use setTable(..tablename..) before executing mysqlaccess commands.");
+            return null;
+        }
+
+        // ---> Get table properties if not already present.
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, conn, table);
+
+        // ---> If table properties could not be fetched, abort
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
+            MySQLA_loggers.logError("STREAM - Could not fetch table details from database.");
+            return null;
+        }
+
+        // ---> Build or get column/field correlation map
+        Map<String, String> propertyMap = MySQLA_correlations.getColumnFieldCorrelation(
+                type,
+                schema,
+                MySQLA_correlations.ColumnSet.ALL);
+
+        // ---> Same query as a regular get. Results are never cached, they would have to be held in memory.
+        String query = MySQLA_crud_getMain.buildSQLQuery(type, schema, sqlWhereFilter, propertyMap);
+
+        // ---> Get precompiled mapper for this model and correlation, abort if model can't be instantiated.
+        MySQLA_rowMapper<T> mapper = MySQLA_correlations.getRowMapper(type, schema);
+        if (mapper == null) return null;
+
+        // ---> Forward only, read only statement with minimum fetch size makes the driver stream rows one by one
+        // ---> instead of loading the whole result. Not taken from the statement cache, it lives as long as the stream.
+        MySQLA_loggers.logInfo("STREAM - Streaming rows from '" + table + "': " + query);
+        Statement st = null;
+        try {
+            st = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            st.setFetchSize(Integer.MIN_VALUE);
+            ResultSet resultSet = st.executeQuery(query);
+            RowSpliterator<T> rows = new RowSpliterator<>(mapper, pool, conn, st, resultSet, table);
+            return StreamSupport.stream(rows, false).onClose(rows::close);
+
+        } catch (SQLException e) {
+            MySQLA_loggers.logError("STREAM - Unable to stream rows from table '" + table + "'.");
+            e.printStackTrace();
+            closeStatement(st);
+            return null;
+        }
+    }
+
+    private static void closeStatement(Statement st) {
+        if (st == null) return;
+        try {
+            st.close();
+        } catch (SQLException e) {
+            MySQLA_loggers.logError("STREAM - Failed to close streaming statement: " + e.getMessage());
+        }
+    }
+
+    // ---> Thrown from within the stream when a row cannot be read, the cause has already been logged.
+    public static class StreamException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private StreamException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private static class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final MySQLA_rowMapper<T> mapper;
+        private final MySQLA_connectionPool pool;
+        private final Connection conn;
+        private final Statement st;
+        private final ResultSet resultSet;
+        private final String table;
+        private final int[] columnIndexes;
+        private boolean exhausted = false;
+        private boolean closed = false;
+
+        private RowSpliterator(MySQLA_rowMapper<T> mapper, MySQLA_connectionPool pool, Connection conn,
+                               Statement st, ResultSet resultSet, String table) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.mapper = mapper;
+            this.pool = pool;
+            this.conn = conn;
+            this.st = st;
+            this.resultSet = resultSet;
+            this.table = table;
+            this.columnIndexes = mapper.getColumnIndexes(resultSet);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (exhausted || closed) return false;
+
+            // ---> Map a single row at a time, nothing else is retained.
+            try {
+                if (!resultSet.next()) {
+                    exhausted = true;
+                    return false;
+                }
+            } catch (SQLException e) {
+                MySQLA_loggers.logError("STREAM - Failed to read next row from table '" + table + "'.");
+                e.printStackTrace();
+                throw new StreamException(e.getMessage(), e);
+            }
+
+            T data = MySQLA_listBuilder.buildObjectFromRow(mapper, resultSet, columnIndexes);
+            if (data == null) throw new StreamException("Unable to instantiate model for table '" + table + "'.", null);
+            action.accept(data);
+            return true;
+        }
+
+        private void close() {
+            if (closed) return;
+            closed = true;
+
+            // ---> Pending rows would otherwise be read to the end when closing a streaming result.
+            try {
+                if (!exhausted) st.cancel();
+            } catch (SQLException e) {
+                MySQLA_loggers.logError("STREAM - Failed to cancel streaming query: " + e.getMessage());
+            }
+            try {
+                resultSet.close();
+            } catch (SQLException e) {
+                // ---> Interrupted query is expected here if the stream has been closed early.
+                if (exhausted) MySQLA_loggers.logError("STREAM - Failed to close streaming result: " + e.getMessage());
+            }
+            closeStatement(st);
+            pool.releaseConnection(conn);
+        }
+    }
+}
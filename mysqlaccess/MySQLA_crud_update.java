@@ -1,14 +1,31 @@
 package com.company.mysqlaccess;
 
+import com.company.mysqlaccess.models.TableSchema;
+
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 public class MySQLA_crud_update {
 
-    public static <T> Integer updateMain (T element, Connection conn, String database, String table,
+    public static <T> Integer updateMain (T element, MySQLA_connectionPool pool, String database, String table,
                                        OnComplete<Integer> callback) {
 
+        // ---> Borrow a pooled connection for the duration of the operation.
+        Connection conn = pool.getConnection();
+        try {
+            return updateOnConnection(element, pool, conn, database, table, callback);
+        } finally {
+            pool.releaseConnection(conn);
+        }
+    }
+
+    private static <T> Integer updateOnConnection (T element, MySQLA_connectionPool pool, Connection conn,
+                                                   String database, String table, OnComplete<Integer> callback) {
+
         // ---> If no connection has been established, abort.
         if (!MySQLA_validators.hasConnection(conn)) {
             MySQLA_loggers.logError("UPDATE - Unable to execute command because there is no connection to '" +
@@ -26,74 +43,170 @@ public class MySQLA_crud_update {
         }
 
         // ---> Get table properties of not already present
-        MySQLA_tableProperties.updateTableProperties(database, conn, table);
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, conn, table);
 
         // ---> If unable to fetch table details, abort
-        if (!MySQLA_validators.hasFetchedTableDetails(database, table)) {
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
             MySQLA_loggers.logError("UPDATE - Could not fetch table details from database.");
             if (callback != null) callback.onFailure();
             return null;
         }
 
-        // ---> Build update query
-        String query = buildSQLQuery(database, table, element);
+        // ---> Build or get parameterized update statement shape
+        MySQLA_statementShape shape = getStatementShape(element.getClass(), schema);
 
         // ---> Execute query on connection
-        return executeQueryOnConnection(conn, database, table, query, callback);
+        return executeQueryOnConnection(pool, conn, database, table, shape, element, callback);
     }
 
-    public static <T> void updateMainParallel (T element, Connection conn, String database, String table,
-                                          OnComplete<Integer> callback) {
-        Thread t = new Thread( () -> {
-            updateMain(element, conn, database, table, callback);
-        });
-        t.start();
+    public static <T> void updateMainParallel (T element, MySQLA_connectionPool pool, MySQLA_executor executor,
+                                               String database, String table, OnComplete<Integer> callback) {
+        executor.execute(
+                () -> updateMain(element, pool, database, table, callback),
+                () -> { if (callback != null) callback.onFailure(); });
+    }
+
+    public static <T> List<Integer> updateAllMain (Collection<T> elements, MySQLA_connectionPool pool,
+                                                   String database, String table, int chunkSize,
+                                                   OnComplete<List<Integer>> callback) {
+
+        // ---> Borrow a pooled connection for the duration of the whole batch.
+        Connection conn = pool.getConnection();
+        try {
+            return updateAllOnConnection(elements, pool, conn, database, table, chunkSize, callback);
+        } finally {
+            pool.releaseConnection(conn);
+        }
     }
 
-    private static <T> String buildSQLQuery(String database, String table, T element) {
+    private static <T> List<Integer> updateAllOnConnection (Collection<T> elements, MySQLA_connectionPool pool,
+                                                            Connection conn, String database, String table,
+                                                            int chunkSize, OnComplete<List<Integer>> callback) {
+
+        // ---> If no connection has been established, abort.
+        if (!MySQLA_validators.hasConnection(conn)) {
+            MySQLA_loggers.logError("UPDATEALL - Unable to execute command because there is no connection to '" +
+                    database + "' database.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> If no table is selected, abort
+        if (!MySQLA_validators.isTableSelected(table)) {
+            MySQLA_loggers.logError("UPDATEALL - No table selected on database '" + database
+                    + "'. Use setTable(..tablename..) " + "before executing mysqlaccess commands.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Nothing to update, report an empty count list.
+        if (elements == null || elements.isEmpty()) {
+            MySQLA_loggers.logInfo("UPDATEALL - No elements to update on table '" + table + "'.");
+            List<Integer> counts = new ArrayList<>();
+            if (callback != null) callback.onSuccess(counts);
+            return counts;
+        }
+
+        // ---> All elements must share the same model, since they are bound against the same statement.
+        Class type = null;
+        for (T element : elements) {
+            if (element != null && type == null) type = element.getClass();
+            if (element == null || element.getClass() != type) {
+                MySQLA_loggers.logError("UPDATEALL - All elements must be non null instances of "
+                        + (type == null ? "the same model" : "'" + type.getSimpleName() + "'") + ".");
+                if (callback != null) callback.onFailure();
+                return null;
+            }
+        }
+
+        // ---> Get table properties of not already present
+        TableSchema schema = MySQLA_tableProperties.updateTableProperties(database, conn, table);
+
+        // ---> If unable to fetch table details, abort
+        if (!MySQLA_validators.hasFetchedTableDetails(schema)) {
+            MySQLA_loggers.logError("UPDATEALL - Could not fetch table details from database.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Build or get parameterized update statement shape, shared with single row updates.
+        MySQLA_statementShape shape = getStatementShape(type, schema);
+        if (shape == null) {
+            MySQLA_loggers.logError("UPDATEALL - Unable to build update statement for table '" + table + "'.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
+        // ---> Execute batch on connection
+        return executeBatchOnConnection(pool, conn, database, table, shape, elements, chunkSize, callback);
+    }
+
+    public static <T> void updateAllMainParallel (Collection<T> elements, MySQLA_connectionPool pool,
+                                                  MySQLA_executor executor, String database, String table,
+                                                  int chunkSize, OnComplete<List<Integer>> callback) {
+        executor.execute(
+                () -> updateAllMain(elements, pool, database, table, chunkSize, callback),
+                () -> { if (callback != null) callback.onFailure(); });
+    }
+
+    static MySQLA_statementShape getStatementShape(Class type, TableSchema schema) {
+
+        // ---> Check if this statement has been previously built and return from memory if so.
+        String database = schema.database;
+        String table = schema.table;
+        String shapeKey = MySQLA_statementShape.getKey("UPDATE", type, database, table);
+        MySQLA_statementShape shape = MySQLA_statementShape.get(shapeKey, schema);
+        if (shape != null) return shape;
 
         // ---> Use updatable columns + primary key
-        String primaryKey = MySQLA_tableProperties.getPrimaryKey(database, table);
-        List<String> relevantColumns = MySQLA_tableProperties.getUpdateableColumns(database, table);
-        if (!relevantColumns.contains(primaryKey)) relevantColumns.add(primaryKey);
+        String primaryKey = schema.primaryKey;
 
         // ---> Figure out best correlation between database column names and model fields
         Map<String, String> propertyMap = MySQLA_correlations.getColumnFieldCorrelation(
-                element.getClass(),
-                relevantColumns,
-                database,
-                table);
-
-        // ---> Build update query
-        String primaryFieldData = "";
-        String query = "update " + table + " ";
-        String set = "set ";
-
-        for (Map.Entry<String, String> entry : propertyMap.entrySet()) {
-            String columnType = MySQLA_tableProperties.getColumnType(database, table, entry.getKey());
-            boolean isPrimaryKey = entry.getKey().equals(primaryKey);
-            if (!isPrimaryKey) set += entry.getKey() + " = ";
-            String encode = null;
-            try { encode = MySQLA_orm.getSQLString(element, entry.getValue(), columnType); }
-            catch (Exception e) { e.printStackTrace(); }
-            if (isPrimaryKey) primaryFieldData += encode;
-            else set += encode + ", ";
-        }
-
-        String where = "where " + primaryKey + " = " + primaryFieldData;
-        set = set.replaceAll(", $", "") + " ";
-        query += set + where;
-        return query;
+                type,
+                schema,
+                MySQLA_correlations.ColumnSet.UPDATABLE_WITH_PRIMARY_KEY);
+
+        // ---> Model must hold the primary key to identify the row, abort otherwise.
+        if (!propertyMap.containsKey(primaryKey)) {
+            MySQLA_loggers.logError("UPDATE - Model '" + type.getName() + "' has no field matching primary key '"
+                    + primaryKey + "' of table '" + table + "'.");
+            return null;
+        }
+
+        // ---> Build update query, set columns first and primary key last
+        List<String> columns = new ArrayList<>();
+        for (String column : propertyMap.keySet()) {
+            if (!column.equals(primaryKey)) columns.add(column);
+        }
+        if (columns.isEmpty()) {
+            MySQLA_loggers.logError("UPDATE - Model '" + type.getName() + "' has no field matching an updatable "
+                    + "column of table '" + table + "'.");
+            return null;
+        }
+        String query = "update " + table + " set " + String.join(" = ?, ", columns) + " = ? where "
+                + primaryKey + " = ?";
+        columns.add(primaryKey);
+        return MySQLA_statementShape.put(shapeKey,
+                MySQLA_statementShape.build(query, type, schema, columns, propertyMap));
     }
 
-    private static Integer executeQueryOnConnection (Connection conn, String database, String table,
-                                                     String query, OnComplete<Integer> callback) {
+    private static <T> Integer executeQueryOnConnection (MySQLA_connectionPool pool, Connection conn,
+                                                         String database, String table,
+                                                         MySQLA_statementShape shape, T element,
+                                                         OnComplete<Integer> callback) {
+        if (shape == null) {
+            MySQLA_loggers.logError("UPDATE - Unable to build update statement for table '" + table + "'.");
+            if (callback != null) callback.onFailure();
+            return null;
+        }
+
         // ---> Execute query on connection
         try {
-
-            Statement st = conn.createStatement();
-            MySQLA_loggers.logInfo("UPDATE - Executing query at '" + table +"': " + query);
-            int result = st.executeUpdate(query);
+            MySQLA_loggers.logInfo("UPDATE - Executing query at '" + table +"': " + shape.sql);
+            PreparedStatement ps = pool.prepareStatement(conn, shape.sql, Statement.NO_GENERATED_KEYS);
+            shape.bind(ps, element);
+            int result = ps.executeUpdate();
 
             if (result == 0) {
                 MySQLA_loggers.logError("UPDATE - Failed to update row(s) on table '" + table + "'!");
@@ -102,15 +215,93 @@ public class MySQLA_crud_update {
             }
 
             MySQLA_loggers.logInfo("UPDATE - Successfully updated " + result + " row(s) on table '" + table + "'.");
-            MySQLA_cache.deleteCache(database, table);
+            // ---> Only cached results that may hold the updated row are invalidated.
+            MySQLA_cache.invalidateWrittenRows(database, table,
+                    Collections.singletonList(shape.getValue(element, shape.getParameterCount() - 1)));
             if (callback != null) callback.onSuccess(result);
             return result;
 
-        } catch (SQLException e) {
+        } catch (SQLException | IllegalAccessException e) {
             MySQLA_loggers.logError("UPDATE - Failed to update row on table '" + table + "'.");
             if (callback != null) callback.onFailure();
             e.printStackTrace();
             return null;
         }
     }
+
+    private static <T> List<Integer> executeBatchOnConnection (MySQLA_connectionPool pool, Connection conn,
+                                                               String database, String table,
+                                                               MySQLA_statementShape shape, Collection<T> elements,
+                                                               int chunkSize, OnComplete<List<Integer>> callback) {
+        int rowsPerChunk = Math.max(1, chunkSize);
+        List<Integer> counts = new ArrayList<>(elements.size());
+        int pending = 0;
+
+        MySQLA_loggers.logInfo("UPDATEALL - Updating " + elements.size() + " row(s) at '" + table
+                + "' in batches of " + rowsPerChunk + ": " + shape.sql);
+        try {
+            PreparedStatement ps = pool.prepareStatement(conn, shape.sql, Statement.NO_GENERATED_KEYS);
+            conn.setAutoCommit(false);
+            try {
+                // ---> Each chunk is sent as one JDBC batch and committed on its own.
+                for (T element : elements) {
+                    shape.bind(ps, element);
+                    ps.addBatch();
+                    if (++pending == rowsPerChunk) {
+                        commitChunk(conn, ps, counts);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) commitChunk(conn, ps, counts);
+            } catch (SQLException | IllegalAccessException e) {
+                ps.clearBatch();
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            MySQLA_loggers.logInfo("UPDATEALL - Successfully updated " + counts.size() + " row(s) on table '"
+                    + table + "'.");
+            if (callback != null) callback.onSuccess(counts);
+            return counts;
+
+        } catch (SQLException | IllegalAccessException e) {
+            MySQLA_loggers.logError("UPDATEALL - Failed to update rows on table '" + table + "', "
+                    + counts.size() + " row(s) had already been committed.");
+            if (callback != null) callback.onFailure();
+            e.printStackTrace();
+            return null;
+
+        } finally {
+            // ---> Invalidate cached results that may hold the updated rows, once for the whole batch, even if
+            // ---> only part of it got committed.
+            invalidateRows(database, table, shape, elements);
+        }
+    }
+
+    private static void commitChunk (Connection conn, PreparedStatement ps, List<Integer> counts)
+            throws SQLException {
+        // ---> Batches are sent in as few round trips as possible (rewriteBatchedStatements), rewritten statements
+        // ---> may only report success (SUCCESS_NO_INFO) rather than the amount of rows each one affected.
+        int[] results = ps.executeBatch();
+        for (int result : results) {
+            if (result == Statement.EXECUTE_FAILED) throw new SQLException("Batch statement failed to execute.");
+        }
+        conn.commit();
+        for (int result : results) counts.add(result);
+    }
+
+    private static <T> void invalidateRows (String database, String table, MySQLA_statementShape shape,
+                                            Collection<T> elements) {
+
+        // ---> Primary key is the last parameter of the update statement.
+        List<Object> keys = new ArrayList<>(elements.size());
+        try {
+            for (T element : elements) keys.add(shape.getValue(element, shape.getParameterCount() - 1));
+        } catch (IllegalAccessException e) {
+            keys = null;
+        }
+        MySQLA_cache.invalidateWrittenRows(database, table, keys);
+    }
 }
@@ -0,0 +1,134 @@
+package com.company.mysqlaccess;
+
+import com.company.mysqlaccess.models.MySQLAConfig;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MySQLA_executor {
+
+    private final ExecutorService executor;
+
+    public MySQLA_executor(MySQLAConfig config) {
+        ExecutorService virtualThreadExecutor = config.executorVirtualThreads ? createVirtualThreadExecutor() : null;
+        this.executor = (virtualThreadExecutor != null) ? virtualThreadExecutor : createPlatformExecutor(config);
+    }
+
+    public void execute(Runnable task, Runnable onRejected) {
+        try {
+            executor.execute(new Task(task, onRejected));
+        } catch (RejectedExecutionException e) {
+            MySQLA_loggers.logError("EXECUTOR - Task rejected: " + e.getMessage());
+            if (onRejected != null) onRejected.run();
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ExecutorService createPlatformExecutor(MySQLAConfig config) {
+        int threads = Math.max(1, config.executorThreads);
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, config.executorKeepAliveSeconds,
+                TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, config.executorQueueSize)),
+                r -> new Thread(r, "MySQLA-worker-" + threadCount.incrementAndGet()),
+                new RejectionHandler(config.executorRejectionPolicy));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        // ---> Looked up reflectively so the module still compiles and runs on JDKs without virtual threads.
+        // ---> Concurrency is then bounded by the connection pool, each task waits on it for a free connection.
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            MySQLA_loggers.logInfo("EXECUTOR - Running asynchronous operations on virtual threads.");
+            return executor;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            MySQLA_loggers.logError("EXECUTOR - Virtual threads are not supported on Java "
+                    + System.getProperty("java.version") + ", falling back to platform threads.");
+            return null;
+        }
+    }
+
+    // ---> Callback adapters completing a future. As on the synchronous methods, failure is denoted by a null result.
+
+    public static <T> OnComplete<T> completing(CompletableFuture<T> future) {
+        return new OnComplete<T>() {
+            @Override
+            public void onSuccess(T feedback) { future.complete(feedback); }
+
+            @Override
+            public void onFailure() { future.complete(null); }
+        };
+    }
+
+    public static <T> OnGetComplete<T> completingList(CompletableFuture<List<T>> future) {
+        return new OnGetComplete<T>() {
+            @Override
+            public void onSuccess(List<T> data) { future.complete(data); }
+
+            @Override
+            public void onFailure() { future.complete(null); }
+        };
+    }
+
+    private static class Task implements Runnable {
+        private final Runnable task;
+        private final Runnable onRejected;
+
+        private Task(Runnable task, Runnable onRejected) {
+            this.task = task;
+            this.onRejected = onRejected;
+        }
+
+        @Override
+        public void run() {
+            // ---> An unexpected failure must still fire the callback, or whoever waits on it would wait forever.
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                MySQLA_loggers.logError("EXECUTOR - Task failed: " + e);
+                reject();
+            }
+        }
+
+        private void reject() {
+            if (onRejected != null) onRejected.run();
+        }
+    }
+
+    private static class RejectionHandler implements RejectedExecutionHandler {
+        private final MySQLAConfig.RejectionPolicy policy;
+
+        private RejectionHandler(MySQLAConfig.RejectionPolicy policy) {
+            this.policy = policy;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) throw new RejectedExecutionException("executor has been shut down.");
+
+            if (policy == MySQLAConfig.RejectionPolicy.CALLER_RUNS) {
+                r.run();
+            }
+            else if (policy == MySQLAConfig.RejectionPolicy.DISCARD_OLDEST) {
+                // ---> Fail the longest waiting task (so its callback still fires) and queue the new one.
+                Runnable oldest = executor.getQueue().poll();
+                if (oldest instanceof Task) {
+                    MySQLA_loggers.logError("EXECUTOR - Queue full, discarding oldest waiting task.");
+                    ((Task) oldest).reject();
+                }
+                executor.execute(r);
+            }
+            else {
+                throw new RejectedExecutionException(executor.getQueue().size()
+                        + " task(s) already waiting for execution.");
+            }
+        }
+    }
+}
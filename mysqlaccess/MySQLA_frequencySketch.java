@@ -0,0 +1,79 @@
+package com.company.mysqlaccess;
+
+public class MySQLA_frequencySketch {
+
+    // ---> Count-min sketch of 4 bit counters (16 per long), estimating how often each key has been requested.
+    // ---> Counters are halved periodically so popularity fades over time. Updates aren't atomic, counts
+    // ---> are an approximation anyway.
+    private static final long[] seeds = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+            0xcbf29ce484222325L};
+    private static final long resetMask = 0x7777777777777777L;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions = 0;
+
+    public MySQLA_frequencySketch(int expectedKeys) {
+        int size = Integer.highestOneBit(Math.max(64, Math.min(expectedKeys, 1 << 24)) - 1) << 1;
+        this.table = new long[size];
+        this.tableMask = size - 1;
+        this.sampleSize = 10 * size;
+    }
+
+    public int frequency(int keyHash) {
+        int hash = spread(keyHash);
+        int frequency = Integer.MAX_VALUE;
+        for (int x = 0; x < 4; x++) {
+            frequency = Math.min(frequency, getCounter(hash, x));
+        }
+        return frequency;
+    }
+
+    public void increment(int keyHash) {
+        int hash = spread(keyHash);
+        boolean added = false;
+        for (int x = 0; x < 4; x++) {
+            added |= incrementCounter(hash, x);
+        }
+        if (added && ++additions >= sampleSize) reset();
+    }
+
+    private int getCounter(int hash, int depth) {
+        int index = indexOf(hash, depth);
+        int offset = counterOffset(hash, depth);
+        return (int) ((table[index] >>> offset) & 0xfL);
+    }
+
+    private boolean incrementCounter(int hash, int depth) {
+        int index = indexOf(hash, depth);
+        int offset = counterOffset(hash, depth);
+        long mask = 0xfL << offset;
+        if ((table[index] & mask) == mask) return false;
+        table[index] += 1L << offset;
+        return true;
+    }
+
+    private void reset() {
+        for (int x = 0; x < table.length; x++) {
+            table[x] = (table[x] >>> 1) & resetMask;
+        }
+        additions = additions / 2;
+    }
+
+    private int indexOf(int hash, int depth) {
+        long h = (hash + seeds[depth]) * seeds[depth];
+        h += h >>> 32;
+        return ((int) h) & tableMask;
+    }
+
+    private int counterOffset(int hash, int depth) {
+        return (((hash >>> (depth << 3)) & 3) << 2) + (depth << 4) & 63;
+    }
+
+    private static int spread(int hash) {
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        return (hash >>> 16) ^ hash;
+    }
+}
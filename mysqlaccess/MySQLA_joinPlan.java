@@ -0,0 +1,138 @@
+package com.company.mysqlaccess;
+
+import com.company.mysqlaccess.models.TableSchema;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MySQLA_joinPlan<T> {
+
+    // ---> Compiled once per model, main table, joined tables and reference columns. Table details are compared by
+    // ---> identity on every lookup, a table fetched again gets a new plan.
+    private static final Map<String, MySQLA_joinPlan<?>> plans = new ConcurrentHashMap<>();
+
+    public final TableSchema schema;
+    public final TableSchema[] joinSchemas;
+    public final Map<String, String> propertyMap;
+    public final MySQLA_rowMapper<T> mapper;
+
+    // ---> Mapped columns read from main table, and mapper indexes of the ones read from each joined table.
+    public final List<String> mainColumns;
+    public final List<List<Integer>> joinedIndexes;
+    public final List<List<String>> joinedColumns;
+
+    // ---> Whether batch loading paid off the last time this plan was loaded with AUTO strategy.
+    volatile Boolean preferBatch = null;
+
+    private final String joinSQL;
+    private final String mainSQL;
+    private final String[] lookupSQL;
+
+    private MySQLA_joinPlan(Class<T> type, TableSchema schema, TableSchema[] joinSchemas, String[] IdColumns) {
+        this.schema = schema;
+        this.joinSchemas = joinSchemas.clone();
+        String table = schema.table;
+
+        // ---> Calculate column/field correlation from joined column names
+        List<String> allColumns = new ArrayList<>(schema.columnNames);
+        for (TableSchema joinSchema : joinSchemas) {
+            allColumns.addAll(joinSchema.columnNames);
+        }
+        this.propertyMap = MySQLA_correlations.getColumnFieldCorrelation(type, allColumns, schema.database, table);
+        this.mapper = MySQLA_correlations.getRowMapper(type, propertyMap, schema);
+
+        // ---> Main table takes precedence over joined ones, joined tables over the ones following them.
+        List<String> selected = new ArrayList<>();
+        List<String> mainColumns = new ArrayList<>();
+        List<List<Integer>> joinedIndexes = new ArrayList<>();
+        List<List<String>> joinedColumns = new ArrayList<>();
+        for (int y = 0; y < joinSchemas.length; y++) {
+            joinedIndexes.add(new ArrayList<>());
+            joinedColumns.add(new ArrayList<>());
+        }
+        for (String column : propertyMap.keySet()) {
+            if (schema.hasColumn(column)) {
+                selected.add(table + "." + column);
+                mainColumns.add(column);
+                continue;
+            }
+            for (int y = 0; y < joinSchemas.length; y++) {
+                if (joinSchemas[y].hasColumn(column)) {
+                    selected.add(joinSchemas[y].table + "." + column);
+                    int index = (mapper == null) ? -1 : mapper.indexOf(column);
+                    if (index != -1) {
+                        joinedIndexes.get(y).add(index);
+                        joinedColumns.get(y).add(column);
+                    }
+                    break;
+                }
+            }
+        }
+
+        // ---> Join query, in the exact same form it has always had so cached results keep their keys.
+        StringBuilder join = new StringBuilder();
+        for (int y = 0; y < joinSchemas.length; y++) {
+            String tableToJoin = joinSchemas[y].table;
+            join.append("left join ").append(tableToJoin).append(" on ").append(table).append(".")
+                    .append(IdColumns[y]).append("=").append(tableToJoin).append(".")
+                    .append(joinSchemas[y].primaryKey).append(" ");
+        }
+        this.joinSQL = "select " + String.join(", ", selected) + " from " + table + " " + join;
+
+        // ---> Batch loading reads main columns along with the reference ones, then joined rows by primary key.
+        List<String> mainSelected = new ArrayList<>();
+        for (String column : mainColumns) mainSelected.add(table + "." + column);
+        for (String IdColumn : IdColumns) mainSelected.add(table + "." + IdColumn);
+        this.mainSQL = "select " + String.join(", ", mainSelected) + " from " + table;
+        this.lookupSQL = new String[joinSchemas.length];
+        for (int y = 0; y < joinSchemas.length; y++) {
+            lookupSQL[y] = "select " + joinSchemas[y].primaryKey + ", " + String.join(", ", joinedColumns.get(y))
+                    + " from " + joinSchemas[y].table + " where " + joinSchemas[y].primaryKey + " in (";
+        }
+
+        this.mainColumns = Collections.unmodifiableList(mainColumns);
+        this.joinedIndexes = Collections.unmodifiableList(joinedIndexes);
+        this.joinedColumns = Collections.unmodifiableList(joinedColumns);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> MySQLA_joinPlan<T> get(Class<T> type, TableSchema schema, TableSchema[] joinSchemas,
+                                             String[] IdColumns) {
+        String key = MySQLA_statementShape.getKey("GETFILL", type, schema.database, schema.table) + "|"
+                + String.join(",", IdColumns) + "|" + getTables(joinSchemas);
+        MySQLA_joinPlan<T> plan = (MySQLA_joinPlan<T>) plans.get(key);
+        if (plan != null && plan.isCurrent(schema, joinSchemas)) return plan;
+
+        plan = new MySQLA_joinPlan<>(type, schema, joinSchemas, IdColumns);
+        plans.put(key, plan);
+        MySQLA_loggers.logInfo("GETFILL - Compiled join plan for model '" + type.getName() + "' @ '" + schema.table
+                + "' joining " + getTables(joinSchemas) + ".");
+        return plan;
+    }
+
+    public String getQuery(String sqlWhereFilter) {
+        return (sqlWhereFilter == null) ? joinSQL : joinSQL + "where " + sqlWhereFilter + " ";
+    }
+
+    public String getMainQuery(String sqlWhereFilter) {
+        return (sqlWhereFilter == null) ? mainSQL : mainSQL + " where " + sqlWhereFilter;
+    }
+
+    public String getLookupQuery(int join, int keys) {
+        return lookupSQL[join] + String.join(", ", Collections.nCopies(keys, "?")) + ")";
+    }
+
+    private boolean isCurrent(TableSchema schema, TableSchema[] joinSchemas) {
+        if (this.schema != schema || this.joinSchemas.length != joinSchemas.length) return false;
+        for (int y = 0; y < joinSchemas.length; y++) {
+            if (this.joinSchemas[y] != joinSchemas[y]) return false;
+        }
+        return true;
+    }
+
+    private static String getTables(TableSchema[] joinSchemas) {
+        StringJoiner tables = new StringJoiner(",");
+        for (TableSchema joinSchema : joinSchemas) tables.add(joinSchema.table);
+        return tables.toString();
+    }
+}
@@ -1,38 +1,47 @@
 package com.company.mysqlaccess;
 
-import java.util.Arrays;
-
 public class MySQLA_levenstein {
 
     public static int getLevensteinDistance(String x, String y) {
-        int[][] dp = new int[x.length() + 1][y.length() + 1];
-
-        for (int i = 0; i <= x.length(); i++) {
-            for (int j = 0; j <= y.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                }
-                else if (j == 0) {
-                    dp[i][j] = i;
-                }
-                else {
-                    dp[i][j] = min(dp[i - 1][j - 1]
-                                    + costOfSubstitution(x.charAt(i - 1), y.charAt(j - 1)),
-                            dp[i - 1][j] + 1,
-                            dp[i][j - 1] + 1);
-                }
-            }
-        }
-
-        return dp[x.length()][y.length()];
+        return getLevensteinDistance(x, y, Math.max(x.length(), y.length()));
     }
 
-    private static int costOfSubstitution(char a, char b) {
-        return a == b ? 0 : 1;
+    public static int getLevensteinDistance(String x, String y, int max) {
+        return getLevensteinDistance(x, y, max, new int[y.length() + 1], new int[y.length() + 1]);
     }
 
-    private static int min(int... numbers) {
-        return Arrays.stream(numbers)
-                .min().orElse(Integer.MAX_VALUE);
+    static int getLevensteinDistance(String x, String y, int max, int[] previous, int[] current) {
+
+        // ---> Exact distance if it doesn't exceed max, max + 1 otherwise. Only cells within max of the diagonal
+        // ---> can hold a distance up to max, so each row is computed on that band alone, on two reused rows.
+        int n = x.length();
+        int m = y.length();
+        int over = max + 1;
+        if (Math.abs(n - m) > max) return over;
+        if (n == 0 || m == 0) return Math.max(n, m);
+
+        for (int j = 0; j <= m; j++) previous[j] = (j <= max) ? j : over;
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            current[from - 1] = (from == 1 && i <= max) ? i : over;
+            int rowMin = current[from - 1];
+            char c = x.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int distance = previous[j - 1] + (c == y.charAt(j - 1) ? 0 : 1);
+                distance = Math.min(distance, previous[j] + 1);
+                distance = Math.min(distance, current[j - 1] + 1);
+                current[j] = Math.min(distance, over);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) current[to + 1] = over;
+
+            // ---> Distances never decrease from one row to the next, stop as soon as a whole row exceeds max.
+            if (rowMin > max) return over;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m];
     }
 }
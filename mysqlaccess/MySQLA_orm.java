@@ -1,6 +1,7 @@
 package com.company.mysqlaccess;
 
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
 import java.sql.*;
 import java.text.SimpleDateFormat;
 import java.time.*;
@@ -10,240 +11,268 @@ import java.util.GregorianCalendar;
 
 public class MySQLA_orm {
 
-    public static <T> String getSQLString(T element, String fieldName, String columnType) throws Exception {
+    public interface ParameterBinder {
+        void bind(PreparedStatement ps, int index, Object value) throws SQLException;
+    }
 
-        String values = "";
+    public interface ColumnReader {
+        Object read(ResultSet rs, int index) throws SQLException;
+    }
 
-        Field field = element.getClass().getDeclaredField(fieldName);
-        field.setAccessible(true);
+    public static ParameterBinder getParameterBinder(Class type, String columnType) {
+        ParameterBinder binder = getValueBinder(type, columnType);
 
-        if (field.getType() == String.class) {
-            values = "'" + field.get(element) + "'";
-        }
-
-        else if (field.getType() == java.util.Date.class || field.getType() == java.sql.Date.class) {
-            Date d = (Date) field.get(element);
-            if (MySQLA_typeEquivalency.isTimeColumn(columnType)) {
-                values = "'00:00:00'";
-            }
-            else {
-                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                values = "'" + format.format(d) + "'";
-            }
-        }
-
-        else if (field.getType() == Calendar.class) {
-            Calendar c = (Calendar) field.get(element);
-            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) {
-                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                format.setCalendar(c);
-                values = "'" + format.format(c.getTime()) + "'";
-            }
-            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) {
-                SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd");
-                format.setCalendar(c);
-                values = "'" + format.format(c.getTime()) + "'";
-            }
-            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) {
-                SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss");
-                format.setCalendar(c);
-                values = "'" + format.format(c.getTime()) + "'";
-            }
-            else {
-                values = "'" + field.get(element).toString() + "'";
-            }
-        }
-
-        else if (field.getType() == Year.class) {
-            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) {
-                values = "'" + field.get(element) + "-01-01 00:00:00'";
-            }
-            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) {
-                values = "'" + field.get(element) + "-01-01'";
-            }
-            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) {
-                values = "'00:00:00'";
-            }
-            else {
-                values = "/" + field.get(element).toString() + "'";
-            }
-        }
-
-        else if (field.getType() == Month.class) {
-            int m = ((Month) field.get(element)).getValue();
-            String mStr = (m<10) ? "0" + m : "" + m;
-            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) {
-                values = "'1970-" + mStr + "-01 00:00:00'";
-            }
-            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) {
-                values = "'1970-" + mStr + "-01'";
-            }
-            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) {
-                values = "'00:00:00'";
-            }
-            else {
-                values = "'" + field.get(element).toString() + "'";
-            }
-        }
-
-        else if (field.getType() == MonthDay.class) {
-            MonthDay m = ((MonthDay) field.get(element));
-            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) {
-                values = "'1970-" + m.getMonthValue() + "-" + m.getDayOfMonth() + " 00:00:00'";
-            }
-            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) {
-                values = "'1970-" + m.getMonthValue() + "-" + m.getDayOfMonth() + "'";
-            }
-            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) {
-                values = "'00:00:00'";
-            }
-            else {
-                values = "'" + field.get(element).toString() + "'";
-            }
-        }
-
-        else if (field.getType() == Time.class) {
-            Time t = ((Time) field.get(element));
-            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) {
-                values = "'1970-01-01 " + t.toString() + "'";
-            }
-            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) {
-                values = "'1970-01-01'";
-            }
-            else {
-                values = "'" + field.get(element).toString() + "'";
-            }
-        }
-
-        else if (field.getType() == LocalDateTime.class) {
-            LocalDateTime d = (LocalDateTime) field.get(element);
-            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) {
-                DateTimeFormatter format = DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss");
-                values = "'" + d.format(format) + "'";
-            }
-            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) {
-                DateTimeFormatter format = DateTimeFormatter.ofPattern("uuuu-MM-dd");
-                values = "'" + d.format(format) + "'";
-            }
-            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) {
-                DateTimeFormatter format = DateTimeFormatter.ofPattern("HH:mm:ss");
-                values = "'" + d.format(format) + "'";
-            }
-            else {
-                values = "'" + field.get(element).toString() + "'";
-            }
-        }
-
-        else if (field.getType() == LocalDate.class) {
-            LocalDate d = (LocalDate) field.get(element);
-            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) {
-                values = "'" + d.format(DateTimeFormatter.ISO_LOCAL_DATE) + " 00:00:00'";
-            }
-            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) {
-                values = "'" + d.format(DateTimeFormatter.ISO_LOCAL_DATE) + "'";
-            }
-            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) {
-                values = "'00:00:00'";
-            }
-            else {
-                values = "'" + d.format(DateTimeFormatter.ISO_LOCAL_DATE) + "'";
-            }
-        }
-
-        else if (field.getType() == LocalTime.class) {
-            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) {
-                values = "'1970-01-01 " + field.get(element).toString() + "'";
-            }
-            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) {
-                values = "'1970-01-01'";
-            }
-            else {
-                values = "'" + field.get(element).toString() + "'";
-            }
-        }
-
-        else if (field.getType() == Timestamp.class) {
-            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) {
-                values = "'" + field.get(element).toString() + "'";
-            }
-            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) {
-                values = "'" + field.get(element).toString().split(" ")[0] + "'";
-            }
-            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) {
-                values = "'" + field.get(element).toString().split(" ")[1] + "'";
-            }
-        }
-
-        else {
-            values = field.get(element).toString();
-        }
-
-        return values;
+        // ---> Null values are sent as SQL NULL regardless of field type.
+        return (ps, index, value) -> {
+            if (value == null) ps.setNull(index, Types.NULL);
+            else binder.bind(ps, index, value);
+        };
     }
 
-    public static Object getObject (Class type, ResultSet resultSet, String columnName) throws SQLException {
+    private static ParameterBinder getValueBinder(Class type, String columnType) {
+
+        if (type == String.class)
+            return (ps, index, value) -> ps.setString(index, (String) value);
+        else if (type == int.class || type == Integer.class)
+            return (ps, index, value) -> ps.setInt(index, (Integer) value);
+        else if (type == long.class || type == Long.class)
+            return (ps, index, value) -> ps.setLong(index, (Long) value);
+        else if (type == short.class || type == Short.class)
+            return (ps, index, value) -> ps.setShort(index, (Short) value);
+        else if (type == byte.class || type == Byte.class)
+            return (ps, index, value) -> ps.setByte(index, (Byte) value);
+        else if (type == float.class || type == Float.class)
+            return (ps, index, value) -> ps.setFloat(index, (Float) value);
+        else if (type == double.class || type == Double.class)
+            return (ps, index, value) -> ps.setDouble(index, (Double) value);
+        else if (type == boolean.class || type == Boolean.class)
+            return (ps, index, value) -> ps.setBoolean(index, (Boolean) value);
+        else if (type == BigDecimal.class)
+            return (ps, index, value) -> ps.setBigDecimal(index, (BigDecimal) value);
+
+        // ---> Date and time fields are sent as text formatted for the target column type.
+        else if (MySQLA_typeEquivalency.isTemporalType(type))
+            return (ps, index, value) -> ps.setString(index, getTemporalString(value, type, columnType));
+
+        else return (ps, index, value) -> ps.setString(index, value.toString());
+    }
+
+    private static String getTemporalString(Object value, Class type, String columnType) {
+
+        if (type == java.util.Date.class || type == java.sql.Date.class) {
+            if (MySQLA_typeEquivalency.isTimeColumn(columnType)) return "00:00:00";
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            return format.format((java.util.Date) value);
+        }
+
+        else if (type == Calendar.class) {
+            Calendar c = (Calendar) value;
+            String pattern = MySQLA_typeEquivalency.isDateTimeColumn(columnType) ? "yyyy-MM-dd HH:mm:ss" :
+                    MySQLA_typeEquivalency.isDateColumn(columnType) ? "yyyy-MM-dd" :
+                    MySQLA_typeEquivalency.isTimeColumn(columnType) ? "HH:mm:ss" : null;
+            if (pattern == null) return c.toString();
+            SimpleDateFormat format = new SimpleDateFormat(pattern);
+            format.setCalendar(c);
+            return format.format(c.getTime());
+        }
+
+        else if (type == Year.class) {
+            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) return value + "-01-01 00:00:00";
+            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) return value + "-01-01";
+            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) return "00:00:00";
+            return value.toString();
+        }
 
-        if (type == byte.class)            return resultSet.getByte(columnName);
-        else if (type == short.class)      return resultSet.getShort(columnName);
-        else if (type == int.class)        return resultSet.getInt(columnName);
-        else if (type == long.class)       return resultSet.getLong(columnName);
-        else if (type == float.class)      return resultSet.getFloat(columnName);
-        else if (type == double.class)     return resultSet.getDouble(columnName);
-        else if (type == boolean.class)    return resultSet.getBoolean(columnName);
-        else if (type == String.class)     return resultSet.getString(columnName);
+        else if (type == Month.class) {
+            int m = ((Month) value).getValue();
+            String mStr = (m<10) ? "0" + m : "" + m;
+            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) return "1970-" + mStr + "-01 00:00:00";
+            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) return "1970-" + mStr + "-01";
+            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) return "00:00:00";
+            return value.toString();
+        }
+
+        else if (type == MonthDay.class) {
+            MonthDay m = (MonthDay) value;
+            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType))
+                return "1970-" + m.getMonthValue() + "-" + m.getDayOfMonth() + " 00:00:00";
+            else if (MySQLA_typeEquivalency.isDateColumn(columnType))
+                return "1970-" + m.getMonthValue() + "-" + m.getDayOfMonth();
+            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) return "00:00:00";
+            return value.toString();
+        }
+
+        else if (type == Time.class || type == LocalTime.class) {
+            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) return "1970-01-01 " + value;
+            else if (MySQLA_typeEquivalency.isDateColumn(columnType)) return "1970-01-01";
+            return value.toString();
+        }
+
+        else if (type == LocalDateTime.class) {
+            LocalDateTime d = (LocalDateTime) value;
+            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType))
+                return d.format(DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss"));
+            else if (MySQLA_typeEquivalency.isDateColumn(columnType))
+                return d.format(DateTimeFormatter.ofPattern("uuuu-MM-dd"));
+            else if (MySQLA_typeEquivalency.isTimeColumn(columnType))
+                return d.format(DateTimeFormatter.ofPattern("HH:mm:ss"));
+            return value.toString();
+        }
 
         else if (type == LocalDate.class) {
-            return resultSet.getDate(columnName).toLocalDate();
+            LocalDate d = (LocalDate) value;
+            if (MySQLA_typeEquivalency.isDateTimeColumn(columnType))
+                return d.format(DateTimeFormatter.ISO_LOCAL_DATE) + " 00:00:00";
+            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) return "00:00:00";
+            return d.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+
+        else if (type == Timestamp.class) {
+            if (MySQLA_typeEquivalency.isDateColumn(columnType)) return value.toString().split(" ")[0];
+            else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) return value.toString().split(" ")[1];
+            return value.toString();
+        }
+
+        return value.toString();
+    }
+
+    public static int estimateSize(Object value) {
+
+        // ---> Rough amount of bytes a value takes once sent to the server.
+        if (value == null) return 4;
+        else if (value instanceof String) return ((String) value).length() * 2 + 4;
+        else if (value instanceof Number || value instanceof Boolean) return 8;
+        return value.toString().length() + 4;
+    }
+
+    public static Field getAccessibleField(Class type, String fieldName) throws NoSuchFieldException {
+        Field field = type.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return field;
+    }
+
+    public static ColumnReader getColumnReader (Class type, String columnType) {
+
+        // ---> Resolved once per mapped column, reads go straight to the typed getter by column ordinal.
+        if (type == byte.class)            return (rs, index) -> rs.getByte(index);
+        else if (type == short.class)      return (rs, index) -> rs.getShort(index);
+        else if (type == int.class)        return (rs, index) -> rs.getInt(index);
+        else if (type == long.class)       return (rs, index) -> rs.getLong(index);
+        else if (type == float.class)      return (rs, index) -> rs.getFloat(index);
+        else if (type == double.class)     return (rs, index) -> rs.getDouble(index);
+        else if (type == boolean.class)    return (rs, index) -> rs.getBoolean(index);
+        else if (type == String.class)     return (rs, index) -> rs.getString(index);
+        else if (type == BigDecimal.class) return (rs, index) -> rs.getBigDecimal(index);
+
+        // ---> Boxed fields keep SQL NULL as null.
+        else if (type == Byte.class)       return nullable((rs, index) -> rs.getByte(index));
+        else if (type == Short.class)      return nullable((rs, index) -> rs.getShort(index));
+        else if (type == Integer.class)    return nullable((rs, index) -> rs.getInt(index));
+        else if (type == Long.class)       return nullable((rs, index) -> rs.getLong(index));
+        else if (type == Float.class)      return nullable((rs, index) -> rs.getFloat(index));
+        else if (type == Double.class)     return nullable((rs, index) -> rs.getDouble(index));
+        else if (type == Boolean.class)    return nullable((rs, index) -> rs.getBoolean(index));
+
+        else if (MySQLA_typeEquivalency.isTemporalType(type)) return getTemporalReader(type, columnType);
+
+        else return (rs, index) -> rs.getObject(index);
+    }
+
+    private static ColumnReader nullable (ColumnReader reader) {
+        return (rs, index) -> {
+            Object value = reader.read(rs, index);
+            return rs.wasNull() ? null : value;
+        };
+    }
+
+    private static ColumnReader getTemporalReader (Class type, String columnType) {
+
+        if (type == LocalDate.class) {
+            return (rs, index) -> {
+                Date d = rs.getDate(index);
+                return (d == null) ? null : d.toLocalDate();
+            };
         }
 
         else if (type == LocalDateTime.class) {
-            String str = resultSet.getString(columnName);
-            str = (str.contains(" ")) ? str.replace(" ", "T") :
-                    (str.contains(":")) ? ("1970-01-01T" + str) : (str + "T00:00:00");
-            return LocalDateTime.parse(str);
+            return (rs, index) -> {
+                String str = rs.getString(index);
+                return (str == null) ? null : LocalDateTime.parse(toLocalDateTimeString(str, columnType));
+            };
         }
 
         else if (type == LocalTime.class) {
-            return resultSet.getTimestamp(columnName).toLocalDateTime().toLocalTime();
+            return (rs, index) -> {
+                Timestamp t = rs.getTimestamp(index);
+                return (t == null) ? null : t.toLocalDateTime().toLocalTime();
+            };
         }
 
         else if (type == Year.class) {
-            return Year.of(resultSet.getDate(columnName).toLocalDate().getYear());
+            return (rs, index) -> {
+                Date d = rs.getDate(index);
+                return (d == null) ? null : Year.of(d.toLocalDate().getYear());
+            };
         }
 
         else if (type == Month.class) {
-            return resultSet.getDate(columnName).toLocalDate().getMonth();
+            return (rs, index) -> {
+                Date d = rs.getDate(index);
+                return (d == null) ? null : d.toLocalDate().getMonth();
+            };
         }
 
         else if (type == MonthDay.class) {
-            LocalDate ld = resultSet.getDate(columnName).toLocalDate();
-            return MonthDay.of(ld.getMonthValue(), ld.getDayOfMonth());
+            return (rs, index) -> {
+                Date d = rs.getDate(index);
+                if (d == null) return null;
+                LocalDate ld = d.toLocalDate();
+                return MonthDay.of(ld.getMonthValue(), ld.getDayOfMonth());
+            };
         }
 
         else if (type == Time.class) {
-            LocalTime lt = resultSet.getTimestamp(columnName).toLocalDateTime().toLocalTime();
-            return Time.valueOf(lt);
+            return (rs, index) -> {
+                Timestamp t = rs.getTimestamp(index);
+                return (t == null) ? null : Time.valueOf(t.toLocalDateTime().toLocalTime());
+            };
         }
 
-        else if (type == java.sql.Date.class || type == java.util.Date.class)  {
-            LocalDate ld = resultSet.getTimestamp(columnName).toLocalDateTime().toLocalDate();
-            return Date.valueOf(ld);
+        else if (type == java.sql.Date.class || type == java.util.Date.class) {
+            return (rs, index) -> {
+                Timestamp t = rs.getTimestamp(index);
+                return (t == null) ? null : Date.valueOf(t.toLocalDateTime().toLocalDate());
+            };
         }
 
-        else if (type == Calendar.class)  {
-            LocalDateTime ldt = resultSet.getTimestamp(columnName).toLocalDateTime();
-            Calendar c = new GregorianCalendar(ldt.getYear(), ldt.getMonthValue()-2, ldt.getDayOfMonth(),
-                    ldt.getHour(), ldt.getMinute(), ldt.getSecond());
-            return c;
+        else if (type == Calendar.class) {
+            return (rs, index) -> {
+                Timestamp t = rs.getTimestamp(index);
+                if (t == null) return null;
+                LocalDateTime ldt = t.toLocalDateTime();
+                return new GregorianCalendar(ldt.getYear(), ldt.getMonthValue()-2, ldt.getDayOfMonth(),
+                        ldt.getHour(), ldt.getMinute(), ldt.getSecond());
+            };
         }
 
-        else if (type == Timestamp.class)  {
-            String str = resultSet.getString(columnName);
-            str = (str.contains(" ")) ? str.replace(" ", "T") :
-                    (str.contains(":")) ? ("1970-01-01T" + str) : (str + "T00:00:00");
-            return Timestamp.valueOf(LocalDateTime.parse(str));
+        else if (type == Timestamp.class) {
+            return (rs, index) -> {
+                String str = rs.getString(index);
+                return (str == null) ? null : Timestamp.valueOf(LocalDateTime.parse(toLocalDateTimeString(str,
+                        columnType)));
+            };
         }
 
-        else return resultSet.getObject(columnName);
+        else return (rs, index) -> rs.getObject(index);
+    }
+
+    private static String toLocalDateTimeString (String str, String columnType) {
+
+        // ---> Column type known upfront, otherwise guess from the text itself.
+        if (MySQLA_typeEquivalency.isDateTimeColumn(columnType)) return str.replace(" ", "T");
+        else if (MySQLA_typeEquivalency.isTimeColumn(columnType)) return "1970-01-01T" + str;
+        else if (MySQLA_typeEquivalency.isDateColumn(columnType)) return str + "T00:00:00";
+        return (str.contains(" ")) ? str.replace(" ", "T") :
+                (str.contains(":")) ? ("1970-01-01T" + str) : (str + "T00:00:00");
     }
 }
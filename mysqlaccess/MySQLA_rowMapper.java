@@ -0,0 +1,209 @@
+package com.company.mysqlaccess;
+
+import com.company.mysqlaccess.models.TableSchema;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class MySQLA_rowMapper<T> {
+
+    private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private static final MethodType constructorType = MethodType.methodType(Object.class);
+    private static final MethodType setterType = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType getterType = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final String[] columns;
+    private final String[] fieldNames;
+    private final Class[] fieldTypes;
+    private final MySQLA_orm.ColumnReader[] readers;
+    private final MethodHandle[] setters;
+    private final MethodHandle[] getters;
+
+    private MySQLA_rowMapper(Class<T> type, MethodHandle constructor, String[] columns, String[] fieldNames,
+                             Class[] fieldTypes, MySQLA_orm.ColumnReader[] readers, MethodHandle[] setters,
+                             MethodHandle[] getters) {
+        this.type = type;
+        this.constructor = constructor;
+        this.columns = columns;
+        this.fieldNames = fieldNames;
+        this.fieldTypes = fieldTypes;
+        this.readers = readers;
+        this.setters = setters;
+        this.getters = getters;
+    }
+
+    public static <T> MySQLA_rowMapper<T> build(Class<T> type, Map<String, String> propertyMap, String database,
+                                                String table) {
+        return build(type, propertyMap, MySQLA_tableProperties.getSchema(database, table));
+    }
+
+    public static <T> MySQLA_rowMapper<T> build(Class<T> type, Map<String, String> propertyMap, TableSchema schema) {
+
+        // ---> Resolve no-args constructor once, with a generic (Object) signature for exact invocation.
+        MethodHandle constructor;
+        try {
+            Constructor<T> declared = type.getDeclaredConstructor();
+            declared.setAccessible(true);
+            constructor = lookup.unreflectConstructor(declared).asType(constructorType);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            String[] classComps = type.toString().split("\\.");
+            String classPath = Arrays.stream(classComps).skip(1).collect(Collectors.joining("."));
+            String className = Arrays.stream(classComps).skip(classComps.length-1).findFirst().get();
+            MySQLA_loggers.logError("Model class constructor needs to have overload without parameters -> " + classPath);
+            MySQLA_loggers.logError("Include on model class' constructors: public "+ className + " () {}");
+            return null;
+        }
+
+        // ---> Resolve one reader and setter per mapped column, fields that cannot be written are left out.
+        int size = propertyMap.size();
+        String[] columns = new String[size];
+        String[] fieldNames = new String[size];
+        Class[] fieldTypes = new Class[size];
+        MySQLA_orm.ColumnReader[] readers = new MySQLA_orm.ColumnReader[size];
+        MethodHandle[] setters = new MethodHandle[size];
+        MethodHandle[] getters = new MethodHandle[size];
+        int count = 0;
+        for (Map.Entry<String, String> entry : propertyMap.entrySet()) {
+            try {
+                Field field = MySQLA_orm.getAccessibleField(type, entry.getValue());
+                setters[count] = lookup.unreflectSetter(field).asType(setterType);
+                getters[count] = lookup.unreflectGetter(field).asType(getterType);
+                fieldTypes[count] = field.getType();
+                readers[count] = MySQLA_orm.getColumnReader(field.getType(),
+                        (schema == null) ? null : schema.getColumnType(entry.getKey()));
+            } catch (NoSuchFieldException e) {
+                MySQLA_loggers.logError("Required field (" + e.getMessage() + ") doesn't exist on model '"
+                        + type.getName() + "'.");
+                continue;
+            } catch (IllegalAccessException e) {
+                MySQLA_loggers.logError("Field '" + entry.getValue() + "' of model '" + type.getName()
+                        + "' can not be written: " + e.getMessage());
+                continue;
+            }
+            columns[count] = entry.getKey();
+            fieldNames[count] = entry.getValue();
+            count++;
+        }
+
+        return new MySQLA_rowMapper<>(type, constructor,
+                Arrays.copyOf(columns, count),
+                Arrays.copyOf(fieldNames, count),
+                Arrays.copyOf(fieldTypes, count),
+                Arrays.copyOf(readers, count),
+                Arrays.copyOf(setters, count),
+                Arrays.copyOf(getters, count));
+    }
+
+    public int indexOf(String column) {
+        for (int x = 0; x < columns.length; x++) {
+            if (columns[x].equals(column)) return x;
+        }
+        return -1;
+    }
+
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    public Class getFieldType(int index) {
+        return fieldTypes[index];
+    }
+
+    public Object getValue(T data, int index) {
+        try {
+            return (Object) getters[index].invokeExact((Object) data);
+        } catch (Throwable e) {
+            MySQLA_loggers.logError("Unable to read field '" + fieldNames[index] + "' of model '" + type.getName()
+                    + "': " + e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean setValue(T data, int index, Object value) {
+        try {
+            setters[index].invokeExact((Object) data, value);
+            return true;
+        } catch (Throwable e) {
+            MySQLA_loggers.logError("Unable to write field '" + fieldNames[index] + "' of model '" + type.getName()
+                    + "': " + e.getMessage());
+            return false;
+        }
+    }
+
+    public int[] getColumnIndexes(ResultSet resultSet) {
+
+        // ---> Resolve column ordinals once per result set, zero marks a column that won't be read.
+        int[] columnIndexes = new int[columns.length];
+        for (int x = 0; x < columns.length; x++) {
+            try {
+                columnIndexes[x] = resultSet.findColumn(columns[x]);
+            } catch (SQLException e) {
+                MySQLA_loggers.logError("Column '" + columns[x] + "' is not present on retrieved data.");
+            }
+        }
+        return columnIndexes;
+    }
+
+    public int[] getColumnIndexes(ResultSet resultSet, Collection<String> retrievedColumns) {
+
+        // ---> Same as above for results holding only some of the mapped columns, the others are left unread.
+        int[] columnIndexes = new int[columns.length];
+        for (int x = 0; x < columns.length; x++) {
+            if (!retrievedColumns.contains(columns[x])) continue;
+            try {
+                columnIndexes[x] = resultSet.findColumn(columns[x]);
+            } catch (SQLException e) {
+                MySQLA_loggers.logError("Column '" + columns[x] + "' is not present on retrieved data.");
+            }
+        }
+        return columnIndexes;
+    }
+
+    public Object readValue(int index, ResultSet resultSet, int columnIndex) throws SQLException {
+        return readers[index].read(resultSet, columnIndex);
+    }
+
+    public T mapRow(ResultSet resultSet, int[] columnIndexes) {
+
+        // ---> Instantiate model and write each mapped column, skipping fields found incompatible before.
+        T data = newInstance();
+        if (data == null) return null;
+
+        for (int x = 0; x < columns.length; x++) {
+            if (columnIndexes[x] == 0) continue;
+            try {
+                Object fieldContent = readers[x].read(resultSet, columnIndexes[x]);
+                setters[x].invokeExact((Object) data, fieldContent);
+            } catch (Throwable e) {
+                String message = (e.getMessage() == null) ? e.getClass().getSimpleName() : e.getMessage();
+                String columnType = message.replaceAll("Cannot cast ", "").split(" to ")[0];
+                String fieldType = fieldTypes[x].toString().replaceAll("class ", "");
+                MySQLA_loggers.logError("Table column and model field type mismatch -> Column: " + columns[x]
+                        + " (" + columnType + ") | " + "Field: " + fieldNames[x] + " (" + fieldType + ")");
+                columnIndexes[x] = 0;
+            }
+        }
+        return data;
+    }
+
+    @SuppressWarnings("unchecked")
+    T newInstance() {
+        try {
+            return (T) (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            MySQLA_loggers.logError("Unable to instantiate model '" + type.getName() + "': " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.company.mysqlaccess;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MySQLA_scheduler {
+
+    // ---> Single daemon thread shared by every housekeeping task (pool eviction, cache expiry...).
+    private static final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "MySQLA-housekeeping");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // ---> Few daemon threads for background work that may block on the database (i.e. cache refreshes).
+    private static final AtomicInteger backgroundThreadCount = new AtomicInteger();
+    private static final ThreadPoolExecutor background = new ThreadPoolExecutor(4, 4, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(100), r -> {
+        Thread t = new Thread(r, "MySQLA-background-" + backgroundThreadCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        // ---> Cancelled tasks (i.e. expiry of invalidated cache entries) leave the queue right away.
+        scheduler.setRemoveOnCancelPolicy(true);
+        background.allowCoreThreadTimeOut(true);
+    }
+
+    public static boolean execute(Runnable task) {
+        try {
+            background.execute(() -> runSafely(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            MySQLA_loggers.logError("SCHEDULER - Background task rejected, " + background.getQueue().size()
+                    + " task(s) already waiting.");
+            return false;
+        }
+    }
+
+    public static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return scheduler.schedule(() -> runSafely(task), delay, unit);
+    }
+
+    public static ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long period, TimeUnit unit) {
+        return scheduler.scheduleAtFixedRate(() -> runSafely(task), period, period, unit);
+    }
+
+    private static void runSafely(Runnable task) {
+        // ---> An exception escaping a periodic task would silently cancel it, so contain it here.
+        try {
+            task.run();
+        } catch (Exception e) {
+            MySQLA_loggers.logError("SCHEDULER - Housekeeping task failed: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
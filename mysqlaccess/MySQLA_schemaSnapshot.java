@@ -0,0 +1,184 @@
+package com.company.mysqlaccess;
+
+import com.company.mysqlaccess.models.ColumnProps;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MySQLA_schemaSnapshot {
+
+    private static final int MAGIC = 0x4D595341;
+    private static final int VERSION = 1;
+
+    // ---> Fingerprint of each table as of the last snapshot or check, per database.
+    private static final Map<String, Map<String, String>> fingerprints = new ConcurrentHashMap<>();
+    // ---> Snapshots already taken care of in this process, per database and path.
+    private static final Set<List<String>> started = ConcurrentHashMap.newKeySet();
+
+    public static void start(String path, String database, MySQLA_connectionPool pool) {
+        if (path == null || !started.add(Arrays.asList(database, path))) return;
+
+        // ---> Loading from disk is quick and done right away, checking against the database is not.
+        load(path, database);
+        MySQLA_scheduler.execute(() -> pool.withConnection(conn -> synchronize(path, database, conn)));
+    }
+
+    private static void load(String path, String database) {
+        Map<String, String> loaded = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(Paths.get(path))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !database.equals(in.readUTF())) {
+                MySQLA_loggers.logError("SCHEMA - Snapshot at '" + path + "' doesn't belong to database '" + database
+                        + "' or is outdated, ignored.");
+                return;
+            }
+            int tables = in.readInt();
+            for (int x = 0; x < tables; x++) {
+                String table = in.readUTF();
+                String fingerprint = in.readUTF();
+                int columns = in.readInt();
+                List<ColumnProps> tableProps = new ArrayList<>(columns);
+                for (int y = 0; y < columns; y++) {
+                    tableProps.add(new ColumnProps(readString(in), readString(in), readString(in), readString(in),
+                            readString(in), readString(in), readString(in), readString(in)));
+                }
+                if (MySQLA_tableProperties.loadTableProperties(database, table, tableProps))
+                    loaded.put(table, fingerprint);
+            }
+
+        } catch (NoSuchFileException e) {
+            MySQLA_loggers.logInfo("SCHEMA - No snapshot at '" + path + "' yet, it will be written once the schema "
+                    + "of database '" + database + "' has been fetched.");
+        } catch (IOException e) {
+            MySQLA_loggers.logError("SCHEMA - Unable to read snapshot at '" + path + "': " + e.getMessage());
+        }
+
+        fingerprints.put(database, loaded);
+        if (loaded.size() > 0)
+            MySQLA_loggers.logInfo("SCHEMA - Loaded details of " + loaded.size() + " table(s) @ '" + database
+                    + "' from snapshot at '" + path + "'.");
+    }
+
+    private static Void synchronize(String path, String database, Connection conn) {
+
+        // ---> One query tells which tables changed since the snapshot, only those are fetched again.
+        Map<String, String> current = fetchFingerprints(database, conn);
+        if (current == null) return null;
+        Map<String, String> known = fingerprints.getOrDefault(database, Collections.emptyMap());
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            if (!entry.getValue().equals(known.get(entry.getKey()))) changed.add(entry.getKey());
+        }
+
+        // ---> Fetching the whole database at once beats fetching many tables one by one.
+        if (changed.size() > 1 + current.size() / 10) {
+            MySQLA_loggers.logInfo("SCHEMA - " + changed.size() + " table(s) @ '" + database
+                    + "' changed since snapshot, fetching all.");
+            MySQLA_tableProperties.refreshAllTablesProperties(database, conn);
+        }
+        else {
+            for (String table : changed) {
+                MySQLA_loggers.logInfo("SCHEMA - Table '" + table + "' @ '" + database
+                        + "' changed since snapshot, fetching it.");
+                MySQLA_tableProperties.refreshTableProperties(database, conn, table);
+            }
+        }
+
+        fingerprints.put(database, current);
+        if (changed.size() > 0 || !current.keySet().equals(known.keySet())) save(path, database, current);
+        else MySQLA_loggers.logInfo("SCHEMA - Snapshot of database '" + database + "' is up to date.");
+        return null;
+    }
+
+    private static Map<String, String> fetchFingerprints(String database, Connection conn) {
+
+        // ---> Creation time changes when a table is rebuilt, the checksum of column definitions on any other
+        // ---> change. Update time isn't used, it moves on every write.
+        String query = "select t.table_name, t.create_time, count(*), sum(crc32(concat_ws('|', c.column_name, "
+                + "c.column_type, c.column_key, coalesce(c.column_default, ''), c.extra, c.is_nullable, "
+                + "coalesce(c.collation_name, ''), c.privileges))) from information_schema.tables t "
+                + "join information_schema.columns c "
+                + "on c.table_schema = t.table_schema and c.table_name = t.table_name "
+                + "where t.table_schema = '" + database + "' group by t.table_name, t.create_time";
+        Map<String, String> current = new HashMap<>();
+        try (Statement st = conn.createStatement(); ResultSet resultSet = st.executeQuery(query)) {
+            while (resultSet.next()) {
+                current.put(resultSet.getString(1), resultSet.getString(2) + "/" + resultSet.getLong(3) + "/"
+                        + resultSet.getLong(4));
+            }
+            return current;
+
+        } catch (SQLException e) {
+            MySQLA_loggers.logError("SCHEMA - Unable to check schema of database '" + database + "' against "
+                    + "snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void save(String path, String database, Map<String, String> current) {
+
+        // ---> Written aside and moved over the previous snapshot, so a crash never leaves half a file.
+        Path target = Paths.get(path);
+        Path temporary = Paths.get(path + ".tmp");
+        int saved = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporary)))) {
+            List<String> tables = new ArrayList<>();
+            for (String table : current.keySet()) {
+                if (MySQLA_tableProperties.getSchema(database, table) != null) tables.add(table);
+            }
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(database);
+            out.writeInt(tables.size());
+            for (String table : tables) {
+                List<ColumnProps> tableProps = MySQLA_tableProperties.getTableProperties(database, table);
+                out.writeUTF(table);
+                out.writeUTF(current.get(table));
+                out.writeInt(tableProps.size());
+                for (ColumnProps column : tableProps) {
+                    writeString(out, column.field);
+                    writeString(out, column.type);
+                    writeString(out, column.collation);
+                    writeString(out, column.nullable);
+                    writeString(out, column.key);
+                    writeString(out, column.defaultable);
+                    writeString(out, column.extra);
+                    writeString(out, column.privileges);
+                }
+            }
+            saved = tables.size();
+
+        } catch (IOException e) {
+            MySQLA_loggers.logError("SCHEMA - Unable to write snapshot at '" + path + "': " + e.getMessage());
+            return;
+        }
+
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            MySQLA_loggers.logInfo("SCHEMA - Saved details of " + saved + " table(s) @ '" + database
+                    + "' to snapshot at '" + path + "'.");
+        } catch (IOException e) {
+            MySQLA_loggers.logError("SCHEMA - Unable to replace snapshot at '" + path + "': " + e.getMessage());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.company.mysqlaccess;
+
+import com.company.mysqlaccess.models.TableSchema;
+
+import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MySQLA_statementShape {
+
+    // ---> Shapes already built, keyed by operation, database, table and model. Each one holds the table details it
+    // ---> was built from, a table fetched again gets its shapes rebuilt.
+    private static final Map<String, MySQLA_statementShape> shapes = new ConcurrentHashMap<>();
+
+    public final TableSchema schema;
+    public final String sql;
+    private final String[] columns;
+    private final Field[] fields;
+    private final MySQLA_orm.ParameterBinder[] binders;
+
+    public MySQLA_statementShape(TableSchema schema, String sql) {
+        this(schema, sql, new String[0], new Field[0], new MySQLA_orm.ParameterBinder[0]);
+    }
+
+    public MySQLA_statementShape(TableSchema schema, String sql, String[] columns, Field[] fields,
+                                 MySQLA_orm.ParameterBinder[] binders) {
+        this.schema = schema;
+        this.sql = sql;
+        this.columns = columns;
+        this.fields = fields;
+        this.binders = binders;
+    }
+
+    public static String getKey(String operation, Class type, String database, String table) {
+        return operation + "|" + database + "|" + table + "|" + type.getName();
+    }
+
+    public static MySQLA_statementShape get(String key, TableSchema schema) {
+
+        // ---> Shapes built from other details of the table than the current ones are stale.
+        MySQLA_statementShape shape = shapes.get(key);
+        return (shape != null && shape.schema == schema) ? shape : null;
+    }
+
+    public static MySQLA_statementShape put(String key, MySQLA_statementShape shape) {
+
+        // ---> Keep the first shape built from the same details, replace one built from other details.
+        if (shape == null) return null;
+        return shapes.merge(key, shape, (previous, current) -> (previous.schema == current.schema) ? previous
+                : current);
+    }
+
+    public static MySQLA_statementShape build(String sql, Class type, TableSchema schema, List<String> columns,
+                                              Map<String, String> propertyMap) {
+
+        // ---> Resolve field and typed binder for each placeholder, in the order given.
+        Field[] fields = new Field[columns.size()];
+        MySQLA_orm.ParameterBinder[] binders = new MySQLA_orm.ParameterBinder[columns.size()];
+        for (int x = 0; x < columns.size(); x++) {
+            String columnType = schema.getColumnType(columns.get(x));
+            try {
+                fields[x] = MySQLA_orm.getAccessibleField(type, propertyMap.get(columns.get(x)));
+            } catch (NoSuchFieldException e) {
+                e.printStackTrace();
+                return null;
+            }
+            binders[x] = MySQLA_orm.getParameterBinder(fields[x].getType(), columnType);
+        }
+        return new MySQLA_statementShape(schema, sql, columns.toArray(new String[0]), fields, binders);
+    }
+
+    public int getParameterCount() {
+        return fields.length;
+    }
+
+    public int indexOf(String column) {
+        for (int x = 0; x < columns.length; x++) {
+            if (columns[x].equals(column)) return x;
+        }
+        return -1;
+    }
+
+    public <T> Object getValue(T element, int index) throws IllegalAccessException {
+        return fields[index].get(element);
+    }
+
+    public <T> int estimateSize(T element) throws IllegalAccessException {
+        int size = 0;
+        for (Field field : fields) size += MySQLA_orm.estimateSize(field.get(element));
+        return size;
+    }
+
+    public <T> void bind(PreparedStatement ps, T element) throws SQLException, IllegalAccessException {
+        bind(ps, element, 0);
+    }
+
+    public <T> void bind(PreparedStatement ps, T element, int offset) throws SQLException, IllegalAccessException {
+        for (int x = 0; x < fields.length; x++) {
+            binders[x].bind(ps, offset + x + 1, fields[x].get(element));
+        }
+    }
+}
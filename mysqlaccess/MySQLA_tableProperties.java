@@ -1,77 +1,127 @@
 package com.company.mysqlaccess;
 
 import com.company.mysqlaccess.models.ColumnProps;
+import com.company.mysqlaccess.models.TableSchema;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 public class MySQLA_tableProperties {
-    private static Map<String, Map<String, List<ColumnProps>>> tableProperties = new HashMap<>();
-    private static Map<String, Map<String, List<String>>> updateableColumns = new HashMap<>();
-    private static Map<String, Map<String, List<String>>> numericColumns = new HashMap<>();
-    private static Map<String, Map<String, List<String>>> allColumnNames = new HashMap<>();
-    private static Map<String, Map<String, Map<String, String>>> allColumnTypes = new HashMap<>();
-    private static Map<String, Map<String, String>> primaryKeys = new HashMap<>();
+
+    // ---> Immutable details of every fetched table, per database. A table fetched again is replaced as a whole,
+    // ---> so readers always see one consistent version without locking.
+    private static final Map<String, Map<String, TableSchema>> schemas = new ConcurrentHashMap<>();
+    private static final ReentrantLock fetchLock = new ReentrantLock();
+
+    public static TableSchema getSchema(String database, String table) {
+        if (database == null || table == null) return null;
+        Map<String, TableSchema> tables = schemas.get(database);
+        return (tables == null) ? null : tables.get(table);
+    }
 
     public static List<String> getUpdateableColumns(String database, String table) {
-        if (updateableColumns.containsKey(database)) {
-            if (updateableColumns.get(database).containsKey(table)) {
-                return updateableColumns.get(database).get(table);
-            }
-        }
-        return null;
+        TableSchema schema = getSchema(database, table);
+        return (schema == null) ? null : schema.updatableColumns;
     }
 
     public static List<String> getAllColumns(String database, String table) {
-        if (allColumnNames.containsKey(database)) {
-            if (allColumnNames.get(database).containsKey(table)) {
-                return allColumnNames.get(database).get(table);
-            }
-        }
-        return null;
+        TableSchema schema = getSchema(database, table);
+        return (schema == null) ? null : schema.columnNames;
     }
 
     public static List<String> getNumericColumns(String database, String table) {
-        if (numericColumns.containsKey(database)) {
-            if (numericColumns.get(database).containsKey(table)) {
-                return numericColumns.get(database).get(table);
-            }
-        }
-        return null;
+        TableSchema schema = getSchema(database, table);
+        return (schema == null) ? null : schema.numericColumns;
     }
 
     public static String getColumnType(String database, String table, String column) {
-        if (allColumnTypes.containsKey(database)) {
-            if (allColumnTypes.get(database).containsKey(table)) {
-                if (allColumnTypes.get(database).get(table).containsKey(column)) {
-                    return allColumnTypes.get(database).get(table).get(column);
-                }
-            }
-        }
-        return null;
+        TableSchema schema = getSchema(database, table);
+        return (schema == null) ? null : schema.getColumnType(column);
+    }
+
+    public static List<ColumnProps> getTableProperties(String database, String table) {
+        TableSchema schema = getSchema(database, table);
+        return (schema == null) ? null : schema.columns;
     }
 
     public static String getPrimaryKey(String database, String table) {
-        if (primaryKeys.containsKey(database)) {
-            if (primaryKeys.get(database).containsKey(table)) {
-                return primaryKeys.get(database).get(table);
-            }
+        TableSchema schema = getSchema(database, table);
+        return (schema == null) ? null : schema.primaryKey;
+    }
+
+    public static TableSchema updateTableProperties(String database, Connection conn, String table) {
+
+        // ---> Hot path, table details already fetched.
+        TableSchema schema = getSchema(database, table);
+        if (schema != null) return schema;
+
+        // ---> Only one caller fetches at a time, the others find details ready once they get the lock.
+        // ---> Explicit lock rather than 'synchronized', which would pin virtual threads to their carrier.
+        fetchLock.lock();
+        try {
+            updateAllTablesProperties(database, conn, table);
+            updateSingleTableProperties(database, conn, table);
+        } finally {
+            fetchLock.unlock();
+        }
+        return getSchema(database, table);
+    }
+
+    public static TableSchema updateTableProperties(String database, MySQLA_connectionPool pool, String table) {
+
+        // ---> Details already fetched need no connection, one is only borrowed to fetch them the first time.
+        TableSchema schema = getSchema(database, table);
+        if (schema != null) return schema;
+        return pool.withConnection(conn -> updateTableProperties(database, conn, table));
+    }
+
+    public static boolean loadTableProperties(String database, String table, List<ColumnProps> newTableProps) {
+
+        // ---> Details known from elsewhere (i.e. a schema snapshot), stored as if just fetched.
+        fetchLock.lock();
+        try {
+            MySQLA_loggers.logFetch("");
+            MySQLA_loggers.logFetch("Loaded details for table '" + table + "' ...");
+            saveFetchedTablesDetails(database, table, newTableProps);
+            return true;
+        } catch (RuntimeException e) {
+            MySQLA_loggers.logError("TABLEPROPS - Unable to load details of table '" + table + "' @ '" + database
+                    + "': " + e.getMessage());
+            return false;
+        } finally {
+            fetchLock.unlock();
         }
-        return null;
     }
 
-    public static void updateTableProperties(String database, Connection conn, String table) {
-        updateAllTablesProperties(database, conn, table);
-        updateSingleTableProperties(database, conn, table);
+    public static void refreshTableProperties(String database, Connection conn, String table) {
+        fetchLock.lock();
+        try {
+            fetchSingleTableProperties(database, conn, table);
+        } finally {
+            fetchLock.unlock();
+        }
+    }
+
+    public static void refreshAllTablesProperties(String database, Connection conn) {
+        fetchLock.lock();
+        try {
+            fetchAllTablesProperties(database, conn);
+        } finally {
+            fetchLock.unlock();
+        }
     }
 
     private static void updateAllTablesProperties(String database, Connection conn, String tableName) {
 
         // ---> If information has been fetched before, abort execution.
-        if (tableProperties.containsKey(database)) {
-            if (tableProperties.get(database).containsKey(tableName)) return;
-        }
+        if (getSchema(database, tableName) != null) return;
+        fetchAllTablesProperties(database, conn);
+    }
+
+    private static void fetchAllTablesProperties(String database, Connection conn) {
 
         // ---> Build query and prepare receiver list
         String query = "select * from information_schema.columns where table_schema = '" + database + "'";
@@ -80,10 +130,8 @@ public class MySQLA_tableProperties {
         String currentTableName = null;
 
         // ---> Execute query on database
-        try {
-            MySQLA_loggers.logFetch("Fetching details for all tables @ database '" + database + "'...");
-            Statement st = conn.createStatement();
-            ResultSet resultSet = st.executeQuery(query);
+        MySQLA_loggers.logFetch("Fetching details for all tables @ database '" + database + "'...");
+        try (Statement st = conn.createStatement(); ResultSet resultSet = st.executeQuery(query)) {
 
             // ---> Digest data
             while(resultSet.next()) {
@@ -126,20 +174,20 @@ public class MySQLA_tableProperties {
     private static void updateSingleTableProperties(String database, Connection conn, String table) {
 
         // ---> If information has been fetched before, abort execution.
-        if (tableProperties.containsKey(database)) {
-            if (tableProperties.get(database).containsKey(table)) return;
-        }
+        if (getSchema(database, table) != null) return;
+        fetchSingleTableProperties(database, conn, table);
+    }
+
+    private static void fetchSingleTableProperties(String database, Connection conn, String table) {
 
         // ---> Build query and prepare receiver list
         String query = "show full columns from " + database + "." + table;
         List<ColumnProps> newTableProps = new ArrayList<>();
 
         // ---> Execute query on database
-        try {
-            MySQLA_loggers.logFetch("Fecthing details for table '" + table + "' @ '" + database
-                    + "'...");
-            Statement st = conn.createStatement();
-            ResultSet resultSet = st.executeQuery(query);
+        MySQLA_loggers.logFetch("Fecthing details for table '" + table + "' @ '" + database
+                + "'...");
+        try (Statement st = conn.createStatement(); ResultSet resultSet = st.executeQuery(query)) {
 
             // ---> Digest data
             while(resultSet.next()) {
@@ -169,60 +217,24 @@ public class MySQLA_tableProperties {
     }
 
     private static void saveFetchedTablesDetails (String database, String table, List<ColumnProps> newTableProps) {
-        // ---> Update main table properties map
-        if (tableProperties.containsKey(database)) {
-            Map propUpdate = new HashMap(tableProperties.get(database));
-            propUpdate.put(table, newTableProps);
-            tableProperties.replace(database, propUpdate);
 
-        }
-        else {
-            tableProperties.put(database, Map.of(table, newTableProps));
-        }
-
-        // ---> Extract and store column names
+        // ---> Extract column names and numeric column names
         List<String> allColumnNames = newTableProps.stream().map(x -> x.field).collect(Collectors.toList());
-        if (MySQLA_tableProperties.allColumnNames.containsKey(database)) {
-            Map propUpdate = new HashMap(MySQLA_tableProperties.allColumnNames.get(database));
-            propUpdate.put(table, allColumnNames);
-            MySQLA_tableProperties.allColumnNames.replace(database, propUpdate);
-        }
-        else {
-            MySQLA_tableProperties.allColumnNames.put(database, Map.of(table, allColumnNames));
-        }
-
-        // ---> Extract and store numeric column names
         List<String> numericColumnNames = newTableProps
                 .stream()
                 .filter(f -> MySQLA_typeEquivalency.isNumericColumn(f.type))
                 .map(x -> x.field)
                 .collect(Collectors.toList());
-        if (MySQLA_tableProperties.numericColumns.containsKey(database)) {
-            Map propUpdate = new HashMap(MySQLA_tableProperties.numericColumns.get(database));
-            propUpdate.put(table, numericColumnNames);
-            MySQLA_tableProperties.numericColumns.replace(database, propUpdate);
-        }
-        else {
-            MySQLA_tableProperties.numericColumns.put(database, Map.of(table, numericColumnNames));
-        }
 
-        // ---> Extract and store column types
+        // ---> Extract column types
         List<String> allColumnTypes = newTableProps.stream()
                 .map(x -> x.type.replaceAll("\\(.*\\)", "")).collect(Collectors.toList());
-        Map<String, String> columnTypes = new HashMap<>();
+        Map<String, String> columnTypes = new LinkedHashMap<>();
         for(int x = 0; x<allColumnNames.size(); x++) {
             columnTypes.put(allColumnNames.get(x), allColumnTypes.get(x));
         }
-        if (MySQLA_tableProperties.allColumnTypes.containsKey(database)) {
-            Map propUpdate = new HashMap(MySQLA_tableProperties.allColumnTypes.get(database));
-            propUpdate.put(table, columnTypes);
-            MySQLA_tableProperties.allColumnTypes.replace(database, propUpdate);
-        }
-        else {
-            MySQLA_tableProperties.allColumnTypes.put(database, Map.of(table, columnTypes));
-        }
 
-        // ---> Extract and store non-default "updatable" columns names
+        // ---> Extract non-default "updatable" columns names
         List<String> excludeIfExtraContains = new ArrayList<>(Arrays.asList(
                 "auto_increment",
                 "DEFAULT_GENERATED",
@@ -234,25 +246,15 @@ public class MySQLA_tableProperties {
                 .filter(z -> !excludeIfExtraContains.contains(z.extra))
                 .filter(z -> !excludeIfDefaultContains.contains(z.defaultable))
                 .map(x -> x.field).collect(Collectors.toList());
-        if (updateableColumns.containsKey(database)) {
-            Map propUpdate = new HashMap(MySQLA_tableProperties.updateableColumns.get(database));
-            propUpdate.put(table, updatableColumnNames);
-            MySQLA_tableProperties.updateableColumns.replace(database, propUpdate);
-        }
-        else {
-            updateableColumns.put(database, Map.of(table, updatableColumnNames));
-        }
 
-        // ---> Extract and store primary key
-        String primaryKey = newTableProps.stream().filter(x -> x.key.contains("PRI")).findFirst().get().field;
-        if (primaryKeys.containsKey(database)) {
-            Map propUpdate = new HashMap(MySQLA_tableProperties.primaryKeys.get(database));
-            propUpdate.put(table, primaryKey);
-            MySQLA_tableProperties.primaryKeys.replace(database, propUpdate);
-        }
-        else {
-            primaryKeys.put(database, Map.of(table, primaryKey));
-        }
+        // ---> Extract primary key, if any
+        String primaryKey = newTableProps.stream().filter(x -> x.key != null && x.key.contains("PRI"))
+                .map(x -> x.field).findFirst().orElse(null);
+
+        // ---> Publish all details at once
+        TableSchema schema = new TableSchema(database, table, primaryKey, newTableProps, allColumnTypes,
+                numericColumnNames, updatableColumnNames);
+        schemas.computeIfAbsent(database, k -> new ConcurrentHashMap<>()).put(table, schema);
 
         // ---> Inform dev
         MySQLA_loggers.logFetch("Primary key: " + primaryKey);
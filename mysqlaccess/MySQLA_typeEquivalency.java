@@ -11,6 +11,7 @@ public class MySQLA_typeEquivalency {
     private static List<String> dateTimeColumnTypes = new ArrayList<>();
     private static List<String> dateColumnTypes = new ArrayList<>();
     private static List<String> timeColumnTypes = new ArrayList<>();
+    private static List<Class> temporalTypes = new ArrayList<>();
 
     static {
         List<Class> ints = new ArrayList<>(Arrays.asList(Integer.class, int.class, Long.class, long.class));
@@ -30,6 +31,8 @@ public class MySQLA_typeEquivalency {
                 LocalDateTime.class,
                 LocalTime.class));
 
+        temporalTypes.addAll(timestp);
+
         typeEquivalency.put("int", ints);
         typeEquivalency.put("integer", ints);
         typeEquivalency.put("smallint", ints);
@@ -80,4 +83,8 @@ public class MySQLA_typeEquivalency {
     public static boolean isTimeColumn(String columnType) {
         return timeColumnTypes.contains(columnType);
     }
+
+    public static boolean isTemporalType(Class type) {
+        return temporalTypes.contains(type);
+    }
 }
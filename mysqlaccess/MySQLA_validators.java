@@ -1,5 +1,7 @@
 package com.company.mysqlaccess;
 
+import com.company.mysqlaccess.models.TableSchema;
+
 import java.sql.Connection;
 
 public class MySQLA_validators {
@@ -14,6 +16,10 @@ public class MySQLA_validators {
         return true;
     }
 
+    public static boolean hasFetchedTableDetails (TableSchema schema) {
+        return schema != null;
+    }
+
     public static boolean hasFetchedTableDetails (String database, String table) {
         if (MySQLA_tableProperties.getAllColumns(database, table) == null) return false;
         return true;
@@ -0,0 +1,98 @@
+package com.company.mysqlaccess;
+
+import com.company.mysqlaccess.models.TableSchema;
+import com.company.mysqlaccess.models.WarmUpReport;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+public class MySQLA_warmUp {
+
+    public static WarmUpReport warmUp(Map<Class<?>, String> modelsToTables, MySQLA_connectionPool pool,
+                                      MySQLA_executor executor, String database) {
+        WarmUpReport report = new WarmUpReport(database);
+        long start = System.nanoTime();
+        if (modelsToTables == null || modelsToTables.isEmpty()) return report;
+        MySQLA_loggers.logInfo("WARMUP - Warming up " + modelsToTables.size() + " model(s) @ '" + database + "'...");
+
+        // ---> Fetch every table's details first, each on its own pooled connection.
+        List<CompletableFuture<Void>> fetches = new ArrayList<>();
+        for (String table : new LinkedHashSet<>(modelsToTables.values())) {
+            fetches.add(submit(executor, () -> pool.withConnection(
+                    conn -> MySQLA_tableProperties.updateTableProperties(database, conn, table))));
+        }
+        CompletableFuture.allOf(fetches.toArray(new CompletableFuture<?>[0])).join();
+        report.schemaTimeNanos = System.nanoTime() - start;
+
+        // ---> Then correlate, build mappers and statements of every model concurrently.
+        List<CompletableFuture<Void>> models = new ArrayList<>();
+        for (Map.Entry<Class<?>, String> entry : modelsToTables.entrySet()) {
+            WarmUpReport.Item item = new WarmUpReport.Item(entry.getKey().getName(), entry.getValue());
+            report.items.add(item);
+            models.add(submit(executor, () -> {
+                try {
+                    warmUpModel(entry.getKey(), database, entry.getValue(), item);
+                } catch (RuntimeException e) {
+                    item.error = e.toString();
+                    MySQLA_loggers.logError("WARMUP - Failed to warm up model '" + item.model + "': " + e);
+                }
+            }));
+        }
+        CompletableFuture.allOf(models.toArray(new CompletableFuture<?>[0])).join();
+        for (WarmUpReport.Item item : report.items) {
+            if (!item.successful && item.error == null) item.error = "Task rejected by executor.";
+        }
+
+        report.totalTimeNanos = System.nanoTime() - start;
+        MySQLA_loggers.logInfo("WARMUP - Done in " + report.totalTimeNanos / 1000000 + "ms (table details "
+                + report.schemaTimeNanos / 1000000 + "ms): " + report);
+        return report;
+    }
+
+    private static <T> void warmUpModel(Class<T> type, String database, String table, WarmUpReport.Item item) {
+        TableSchema schema = MySQLA_tableProperties.getSchema(database, table);
+        if (schema == null) {
+            item.error = "Could not fetch details of table '" + table + "'.";
+            MySQLA_loggers.logError("WARMUP - " + item.error);
+            return;
+        }
+
+        // ---> Correlations used by reads, inserts and updates.
+        long stepStart = System.nanoTime();
+        Map<String, String> propertyMap = MySQLA_correlations.getColumnFieldCorrelation(type, schema,
+                MySQLA_correlations.ColumnSet.ALL);
+        MySQLA_correlations.getColumnFieldCorrelation(type, schema, MySQLA_correlations.ColumnSet.UPDATABLE);
+        Map<String, String> updateMap = MySQLA_correlations.getColumnFieldCorrelation(type, schema,
+                MySQLA_correlations.ColumnSet.UPDATABLE_WITH_PRIMARY_KEY);
+        item.correlationTimeNanos = System.nanoTime() - stepStart;
+
+        stepStart = System.nanoTime();
+        MySQLA_rowMapper<T> mapper = MySQLA_correlations.getRowMapper(type, schema);
+        item.mapperTimeNanos = System.nanoTime() - stepStart;
+        if (mapper == null) {
+            item.error = "Could not build row mapper for model '" + type.getName() + "'.";
+            return;
+        }
+
+        // ---> Models without a primary key field can't be updated, no update statement for them.
+        stepStart = System.nanoTime();
+        MySQLA_crud_getMain.buildSQLQuery(type, schema, null, propertyMap);
+        MySQLA_crud_add.getStatementShape(type, schema);
+        if (schema.primaryKey != null && updateMap.containsKey(schema.primaryKey))
+            MySQLA_crud_update.getStatementShape(type, schema);
+        item.statementTimeNanos = System.nanoTime() - stepStart;
+        item.successful = true;
+    }
+
+    private static CompletableFuture<Void> submit(MySQLA_executor executor, Runnable task) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                future.complete(null);
+            }
+        }, () -> future.complete(null));
+        return future;
+    }
+}
@@ -1,9 +1,17 @@
 package com.company.mysqlaccess;
 
 import com.company.mysqlaccess.models.MySQLAConfig;
+import com.company.mysqlaccess.models.MySQLACachePolicy;
+import com.company.mysqlaccess.models.MySQLACacheStats;
+import com.company.mysqlaccess.models.Metrics;
+import com.company.mysqlaccess.models.TableSchema;
+import com.company.mysqlaccess.models.WarmUpReport;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class MySQLAccess {
 
@@ -18,7 +26,10 @@ public class MySQLAccess {
 
     private static final String serverTimeZone =
             "?useUnicode=true&useJDBCCompliantTimezoneShift=true&useLegacyDatetimeCode=false";
-    private Connection conn;
+    private static final String serverPreparedStatements = "&useServerPrepStmts=true";
+    private static final String rewriteBatchedStatements = "&rewriteBatchedStatements=true";
+    private MySQLA_connectionPool pool;
+    private MySQLA_executor executor;
     private String url = "";
     private String table = "";
     private MySQLAConfig config = new MySQLAConfig();
@@ -33,42 +44,37 @@ public class MySQLAccess {
     //region Constructor methods
 
     public MySQLAccess(String ip, int port, String database, String user, String password) {
-        constructorProcedures(ip, port, database, user, password);
+        constructorProcedures(new MySQLAConfig(ip, port, database, user, password));
     }
 
     public MySQLAccess(String ip, int port, String database, String user, String password, String tableName) {
-        constructorProcedures(ip, port, database, user, password);
+        constructorProcedures(new MySQLAConfig(ip, port, database, user, password));
         setTable(tableName);
     }
 
     public MySQLAccess(MySQLAConfig config) {
-        constructorProcedures(config.ip, config.port, config.database, config.user, config.password);
+        constructorProcedures(config);
     }
 
     public MySQLAccess(MySQLAConfig config, String tableName) {
-        constructorProcedures(config.ip, config.port, config.database, config.user, config.password);
+        constructorProcedures(config);
         setTable(tableName);
     }
 
-    private void constructorProcedures(String ip, int port, String database, String user, String password) {
-        this.config.ip = ip;
-        this.config.port = port;
-        this.config.database = database;
-        this.config.user = user;
-        this.config.password = password;
-        this.url = "jdbc:mysql://" + ip + ":" + port + "/" + database + serverTimeZone;
+    private void constructorProcedures(MySQLAConfig config) {
+        this.config = config;
+        this.url = "jdbc:mysql://" + config.ip + ":" + config.port + "/" + config.database + serverTimeZone
+                + serverPreparedStatements + rewriteBatchedStatements;
         try {
             Class.forName("com.mysql.cj.jdbc.Driver");
-            if (conn == null) conn = DriverManager.getConnection(url, user, password);
-
-        } catch (SQLException e) {
-            MySQLA_loggers.logError("Unable to connect to database " + database + " @ " + ip + ":" + port +
-                    " with credentials " + user + " | " + password);
-            MySQLA_loggers.logError(e.getMessage());
         } catch (ClassNotFoundException e) {
             MySQLA_loggers.logError("Unable to locate Java JDBC Driver.");
             MySQLA_loggers.logError(e.getMessage());
         }
+        MySQLA_cache.setLimits(config.cacheMaxEntries, config.cacheMaxBytes);
+        if (pool == null) pool = new MySQLA_connectionPool(url, config);
+        if (executor == null) executor = new MySQLA_executor(config);
+        MySQLA_schemaSnapshot.start(config.schemaSnapshotPath, config.database, pool);
     }
 
     //endregion
@@ -92,16 +98,39 @@ public class MySQLAccess {
 
     public void setCache(int time) { MySQLA_cache.setCache(config.database, this.table, time); }
 
+    public void setCache(String tableName, MySQLACachePolicy policy) {
+        MySQLA_cache.setCache(config.database, tableName, policy);
+    }
+
+    public void setCache(MySQLACachePolicy policy) { MySQLA_cache.setCache(config.database, this.table, policy); }
+
     public void stopCache() { MySQLA_cache.stopCache(config.database, this.table); }
 
     public void stopCache(String tableName) { MySQLA_cache.stopCache(config.database, tableName); }
 
     public void clearCache() { MySQLA_cache.deleteCache(config.database, this.table); };
 
+    public MySQLACacheStats getCacheStats() { return MySQLA_cache.getStats(config.database, this.table); }
+
+    public MySQLACacheStats getCacheStats(String tableName) { return MySQLA_cache.getStats(config.database, tableName); }
+
+    public void close() {
+        executor.shutdown();
+        pool.close();
+    }
+
     public String getCurrentPrimaryFieldName() {
         return MySQLA_tableProperties.getPrimaryKey(config.database, this.table);
     }
 
+    public TableSchema getSchema() { return MySQLA_tableProperties.getSchema(config.database, this.table); }
+
+    public TableSchema getSchema(String tableName) { return MySQLA_tableProperties.getSchema(config.database, tableName); }
+
+    public WarmUpReport warmUp(Map<Class<?>, String> modelsToTables) {
+        return MySQLA_warmUp.warmUp(modelsToTables, pool, executor, config.database);
+    }
+
     //endregion
 
 
@@ -112,19 +141,125 @@ public class MySQLAccess {
     //region Adaptive get overloads
 
     public <T> List<T> get(Class<T> type) {
-        return MySQLA_crud_getMain.getMain(type, conn, config.database, table,null, null);
+        return MySQLA_crud_getMain.getMain(type, pool, config.database, table,null, null);
     }
 
     public <T> void get(Class<T> type, OnGetComplete callback) {
-        MySQLA_crud_getMain.getMainParallel(type, conn, config.database, this.table, null, callback);
+        MySQLA_crud_getMain.getMainParallel(type, pool, executor, config.database, this.table, null, callback);
     }
 
     public <T> List<T> get(Class<T> type, String sqlWhereFilter) {
-        return MySQLA_crud_getMain.getMain(type, conn, config.database, table, sqlWhereFilter, null);
+        return MySQLA_crud_getMain.getMain(type, pool, config.database, table, sqlWhereFilter, null);
     }
 
     public <T> void get(Class<T> type, String sqlWhereFilter, OnGetComplete<T> callback) {
-        MySQLA_crud_getMain.getMainParallel(type, conn, config.database, this.table, sqlWhereFilter, callback);
+        MySQLA_crud_getMain.getMainParallel(type, pool, executor, config.database, this.table, sqlWhereFilter,
+                callback);
+    }
+
+    public <T> CompletableFuture<List<T>> getAsync(Class<T> type) {
+        CompletableFuture<List<T>> future = new CompletableFuture<>();
+        get(type, MySQLA_executor.completingList(future));
+        return future;
+    }
+
+    public <T> CompletableFuture<List<T>> getAsync(Class<T> type, String sqlWhereFilter) {
+        CompletableFuture<List<T>> future = new CompletableFuture<>();
+        get(type, sqlWhereFilter, MySQLA_executor.completingList(future));
+        return future;
+    }
+
+    //endregion
+
+
+    /*======================================================================================================\
+                                                DATABASE STREAM
+    \======================================================================================================*/
+
+    //region Database stream overloads
+
+    public <T> Stream<T> stream(Class<T> type) {
+        return MySQLA_crud_stream.streamMain(type, pool, config.database, this.table, null);
+    }
+
+    public <T> Stream<T> stream(Class<T> type, String sqlWhereFilter) {
+        return MySQLA_crud_stream.streamMain(type, pool, config.database, this.table, sqlWhereFilter);
+    }
+
+    public <T> Integer forEach(Class<T> type, Consumer<T> consumer) {
+        return MySQLA_crud_stream.forEachMain(type, pool, config.database, this.table, null, consumer);
+    }
+
+    public <T> Integer forEach(Class<T> type, String sqlWhereFilter, Consumer<T> consumer) {
+        return MySQLA_crud_stream.forEachMain(type, pool, config.database, this.table, sqlWhereFilter, consumer);
+    }
+
+    //endregion
+
+
+    /*======================================================================================================\
+                                                 DATABASE PAGES
+    \======================================================================================================*/
+
+    //region Database page overloads
+
+    public <T> List<T> getPage(Class<T> type, Object afterKey, int limit) {
+        return MySQLA_crud_getPage.getPageMain(type, pool, config.database, this.table, afterKey, limit, null, null);
+    }
+
+    public <T> List<T> getPage(Class<T> type, Object afterKey, int limit, String sqlWhereFilter) {
+        return MySQLA_crud_getPage.getPageMain(type, pool, config.database, this.table, afterKey, limit,
+                sqlWhereFilter, null);
+    }
+
+    public <T> void getPage(Class<T> type, Object afterKey, int limit, String sqlWhereFilter,
+                            OnGetComplete<T> callback) {
+        MySQLA_crud_getPage.getPageMainParallel(type, pool, executor, config.database, this.table, afterKey, limit,
+                sqlWhereFilter, callback);
+    }
+
+    public <T> CompletableFuture<List<T>> getPageAsync(Class<T> type, Object afterKey, int limit,
+                                                       String sqlWhereFilter) {
+        CompletableFuture<List<T>> future = new CompletableFuture<>();
+        getPage(type, afterKey, limit, sqlWhereFilter, MySQLA_executor.completingList(future));
+        return future;
+    }
+
+    public <T> Iterable<List<T>> pages(Class<T> type, int limit) {
+        return MySQLA_crud_getPage.pagesMain(type, pool, config.database, this.table, limit, null);
+    }
+
+    public <T> Iterable<List<T>> pages(Class<T> type, int limit, String sqlWhereFilter) {
+        return MySQLA_crud_getPage.pagesMain(type, pool, config.database, this.table, limit, sqlWhereFilter);
+    }
+
+    //endregion
+
+
+    /*======================================================================================================\
+                                              DATABASE PARALLEL SCAN
+    \======================================================================================================*/
+
+    //region Parallel scan overloads
+
+    public <T> List<T> getParallel(Class<T> type, int partitions) {
+        return MySQLA_crud_getParallel.getParallelMain(type, pool, executor, config.database, this.table, null,
+                Math.min(partitions, config.poolMaxSize));
+    }
+
+    public <T> List<T> getParallel(Class<T> type, String sqlWhereFilter, int partitions) {
+        return MySQLA_crud_getParallel.getParallelMain(type, pool, executor, config.database, this.table,
+                sqlWhereFilter, Math.min(partitions, config.poolMaxSize));
+    }
+
+    public <T> Integer forEachParallel(Class<T> type, int partitions, Consumer<T> consumer) {
+        return MySQLA_crud_getParallel.forEachParallelMain(type, pool, executor, config.database, this.table, null,
+                Math.min(partitions, config.poolMaxSize), consumer);
+    }
+
+    public <T> Integer forEachParallel(Class<T> type, String sqlWhereFilter, int partitions, Consumer<T> consumer) {
+        return MySQLA_crud_getParallel.forEachParallelMain(type, pool, executor, config.database, this.table,
+                sqlWhereFilter, Math.min(partitions, config.poolMaxSize), consumer);
     }
 
     //endregion
@@ -137,45 +272,76 @@ public class MySQLAccess {
     //region Get fill overloads
 
     public <T> List<T> getFill(Class type, String IdColumn, String tableToJoin) {
-        return MySQLA_crud_getFill.getFillMain(type, conn, config.database, table, new String[]{IdColumn},
-                new String[]{tableToJoin}, null, null);
+        return getFill(type, new String[]{IdColumn}, new String[]{tableToJoin}, null, config.fillStrategy);
     }
 
     public void getFill(Class type, String IdColumn, String tableToJoin, OnGetComplete callback) {
-        MySQLA_crud_getFill.getFillMainParallel(type, conn, config.database, this.table, new String[]{IdColumn},
-                new String[]{tableToJoin},null, callback);
+        getFill(type, new String[]{IdColumn}, new String[]{tableToJoin}, null, config.fillStrategy, callback);
     }
 
     public <T> List<T> getFill(Class type, String IdColumn, String tableToJoin, String sqlWhereFilter) {
-        return MySQLA_crud_getFill.getFillMain(type, conn, config.database, table, new String[]{IdColumn},
-                new String[]{tableToJoin}, sqlWhereFilter, null);
+        return getFill(type, new String[]{IdColumn}, new String[]{tableToJoin}, sqlWhereFilter, config.fillStrategy);
     }
 
     public void getFill(Class type, String IdColumn, String tableToJoin, String sqlWhereFilter,
                         OnGetComplete callback) {
-        MySQLA_crud_getFill.getFillMainParallel(type, conn, config.database, this.table, new String[]{IdColumn},
-                new String[]{tableToJoin}, sqlWhereFilter, callback);
+        getFill(type, new String[]{IdColumn}, new String[]{tableToJoin}, sqlWhereFilter, config.fillStrategy,
+                callback);
     }
 
     public <T> List<T> getFill(Class type, String[] IdColumns, String[] tablesToJoin) {
-        return MySQLA_crud_getFill.getFillMain(type, conn, config.database, table, IdColumns, tablesToJoin, null,
-                null);
+        return getFill(type, IdColumns, tablesToJoin, null, config.fillStrategy);
     }
 
     public void getFill(Class type, String[] IdColumns, String[] tablesToJoin, OnGetComplete callback) {
-        MySQLA_crud_getFill.getFillMainParallel(type, conn, config.database, this.table, IdColumns, tablesToJoin,
-                null, callback);
+        getFill(type, IdColumns, tablesToJoin, null, config.fillStrategy, callback);
     }
 
     public <T> List<T> getFill(Class type, String[] IdColumns, String[] tablesToJoin, String sqlWhereFilter) {
-        return MySQLA_crud_getFill.getFillMain(type, conn, config.database, table, IdColumns, tablesToJoin, sqlWhereFilter,
-                null);
+        return getFill(type, IdColumns, tablesToJoin, sqlWhereFilter, config.fillStrategy);
     }
 
     public void getFill(Class type, String[] IdColumns, String[] tablesToJoin, String sqlWhereFilter,
                                OnGetComplete callback) {
-        MySQLA_crud_getFill.getFillMainParallel(type, conn, config.database, this.table, IdColumns, tablesToJoin,
-                sqlWhereFilter, callback);
+        getFill(type, IdColumns, tablesToJoin, sqlWhereFilter, config.fillStrategy, callback);
+    }
+
+    public <T> List<T> getFill(Class type, String[] IdColumns, String[] tablesToJoin, String sqlWhereFilter,
+                               MySQLAConfig.FillStrategy strategy) {
+        return MySQLA_crud_getFill.getFillMain(type, pool, executor, config.database, table, IdColumns, tablesToJoin,
+                sqlWhereFilter, strategy, config.fillBatchSize, null);
+    }
+
+    public void getFill(Class type, String[] IdColumns, String[] tablesToJoin, String sqlWhereFilter,
+                        MySQLAConfig.FillStrategy strategy, OnGetComplete callback) {
+        MySQLA_crud_getFill.getFillMainParallel(type, pool, executor, config.database, this.table, IdColumns,
+                tablesToJoin, sqlWhereFilter, strategy, config.fillBatchSize, callback);
+    }
+
+    public <T> CompletableFuture<List<T>> getFillAsync(Class<T> type, String IdColumn, String tableToJoin) {
+        return getFillAsync(type, new String[]{IdColumn}, new String[]{tableToJoin}, null);
+    }
+
+    public <T> CompletableFuture<List<T>> getFillAsync(Class<T> type, String IdColumn, String tableToJoin,
+                                                       String sqlWhereFilter) {
+        return getFillAsync(type, new String[]{IdColumn}, new String[]{tableToJoin}, sqlWhereFilter);
+    }
+
+    public <T> CompletableFuture<List<T>> getFillAsync(Class<T> type, String[] IdColumns, String[] tablesToJoin) {
+        return getFillAsync(type, IdColumns, tablesToJoin, null);
+    }
+
+    public <T> CompletableFuture<List<T>> getFillAsync(Class<T> type, String[] IdColumns, String[] tablesToJoin,
+                                                       String sqlWhereFilter) {
+        return getFillAsync(type, IdColumns, tablesToJoin, sqlWhereFilter, config.fillStrategy);
+    }
+
+    public <T> CompletableFuture<List<T>> getFillAsync(Class<T> type, String[] IdColumns, String[] tablesToJoin,
+                                                       String sqlWhereFilter, MySQLAConfig.FillStrategy strategy) {
+        CompletableFuture<List<T>> future = new CompletableFuture<>();
+        MySQLA_crud_getFill.getFillMainParallel(type, pool, executor, config.database, this.table, IdColumns,
+                tablesToJoin, sqlWhereFilter, strategy, config.fillBatchSize, MySQLA_executor.completingList(future));
+        return future;
     }
 
     //endregion
@@ -188,105 +354,175 @@ public class MySQLAccess {
     //region Overloads
 
     public Number getCount() {
-        return MySQLA_crud_getMetrics.getMetrics(conn, config.database, table, null, "COUNT",
+        return MySQLA_crud_getMetrics.getMetrics(pool, config.database, table, null, "COUNT",
                 null, null);
     }
 
     public void getCount(OnComplete<Number> callback) {
-        MySQLA_crud_getMetrics.getMetricsParallel(conn, config.database, table, null, "COUNT",
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, null, "COUNT",
                 null, callback);
     }
 
     public Number getCount(String sqlWhereFilter) {
-        return MySQLA_crud_getMetrics.getMetrics(conn, config.database, table, null, "COUNT",
+        return MySQLA_crud_getMetrics.getMetrics(pool, config.database, table, null, "COUNT",
                 sqlWhereFilter, null);
     }
 
     public void getCount(String sqlWhereFilter, OnComplete<Number> callback) {
-        MySQLA_crud_getMetrics.getMetricsParallel(conn, config.database, table, null, "COUNT",
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, null, "COUNT",
                 sqlWhereFilter, callback);
     }
 
     public Number getSum(String column) {
-        return MySQLA_crud_getMetrics.getMetrics(conn, config.database, table, column, "SUM",
+        return MySQLA_crud_getMetrics.getMetrics(pool, config.database, table, column, "SUM",
                 null, null);
     }
 
     public void getSum(String column, OnComplete<Number> callback) {
-        MySQLA_crud_getMetrics.getMetricsParallel(conn, config.database, table, column, "SUM",
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, column, "SUM",
                 null, callback);
     }
 
     public Number getSum(String column, String sqlWhereFilter) {
-        return MySQLA_crud_getMetrics.getMetrics(conn, config.database, table, column, "SUM",
+        return MySQLA_crud_getMetrics.getMetrics(pool, config.database, table, column, "SUM",
                 sqlWhereFilter, null);
     }
 
     public void getSum(String column, String sqlWhereFilter, OnComplete<Number> callback) {
-        MySQLA_crud_getMetrics.getMetricsParallel(conn, config.database, table, column, "SUM",
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, column, "SUM",
                 sqlWhereFilter, callback);
     }
 
     public Number getAvg(String column) {
-        return MySQLA_crud_getMetrics.getMetrics(conn, config.database, table, column, "AVG",
+        return MySQLA_crud_getMetrics.getMetrics(pool, config.database, table, column, "AVG",
                 null, null);
     }
 
     public void getAvg(String column, OnComplete<Number> callback) {
-        MySQLA_crud_getMetrics.getMetricsParallel(conn, config.database, table, column, "AVG",
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, column, "AVG",
                 null, callback);
     }
 
     public Number getAvg(String column, String sqlWhereFilter) {
-        return MySQLA_crud_getMetrics.getMetrics(conn, config.database, table, column, "AVG",
+        return MySQLA_crud_getMetrics.getMetrics(pool, config.database, table, column, "AVG",
                 sqlWhereFilter, null);
     }
 
     public void getAvg(String column, String sqlWhereFilter, OnComplete<Number> callback) {
-        MySQLA_crud_getMetrics.getMetricsParallel(conn, config.database, table, column, "AVG",
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, column, "AVG",
                 sqlWhereFilter, callback);
     }
 
     public Number getMax(String column) {
-        return MySQLA_crud_getMetrics.getMetrics(conn, config.database, table, column, "MAX",
+        return MySQLA_crud_getMetrics.getMetrics(pool, config.database, table, column, "MAX",
                 null, null);
     }
 
     public void getMax(String column, OnComplete<Number> callback) {
-        MySQLA_crud_getMetrics.getMetricsParallel(conn, config.database, table, column, "MAX",
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, column, "MAX",
                 null, callback);
     }
 
     public Number getMax(String column, String sqlWhereFilter) {
-        return MySQLA_crud_getMetrics.getMetrics(conn, config.database, table, column, "MAX",
+        return MySQLA_crud_getMetrics.getMetrics(pool, config.database, table, column, "MAX",
                 sqlWhereFilter, null);
     }
 
     public void getMax(String column, String sqlWhereFilter, OnComplete<Number> callback) {
-        MySQLA_crud_getMetrics.getMetricsParallel(conn, config.database, table, column, "MAX",
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, column, "MAX",
                 sqlWhereFilter, callback);
     }
 
     public Number getMin(String column) {
-        return MySQLA_crud_getMetrics.getMetrics(conn, config.database, table, column, "MIN",
+        return MySQLA_crud_getMetrics.getMetrics(pool, config.database, table, column, "MIN",
                 null, null);
     }
 
     public void getMin(String column, OnComplete<Number> callback) {
-        MySQLA_crud_getMetrics.getMetricsParallel(conn, config.database, table, column, "MIN",
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, column, "MIN",
                 null, callback);
     }
 
     public Number getMin(String column, String sqlWhereFilter) {
-        return MySQLA_crud_getMetrics.getMetrics(conn, config.database, table, column, "MIN",
+        return MySQLA_crud_getMetrics.getMetrics(pool, config.database, table, column, "MIN",
                 sqlWhereFilter, null);
     }
 
     public void getMin(String column, String sqlWhereFilter, OnComplete<Number> callback) {
-        MySQLA_crud_getMetrics.getMetricsParallel(conn, config.database, table, column, "MIN",
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, column, "MIN",
                 sqlWhereFilter, callback);
     }
 
+    public CompletableFuture<Number> getCountAsync() {
+        return getSingleMetricAsync(null, "COUNT", null);
+    }
+
+    public CompletableFuture<Number> getCountAsync(String sqlWhereFilter) {
+        return getSingleMetricAsync(null, "COUNT", sqlWhereFilter);
+    }
+
+    public CompletableFuture<Number> getSumAsync(String column) {
+        return getSingleMetricAsync(column, "SUM", null);
+    }
+
+    public CompletableFuture<Number> getSumAsync(String column, String sqlWhereFilter) {
+        return getSingleMetricAsync(column, "SUM", sqlWhereFilter);
+    }
+
+    public CompletableFuture<Number> getAvgAsync(String column) {
+        return getSingleMetricAsync(column, "AVG", null);
+    }
+
+    public CompletableFuture<Number> getAvgAsync(String column, String sqlWhereFilter) {
+        return getSingleMetricAsync(column, "AVG", sqlWhereFilter);
+    }
+
+    public CompletableFuture<Number> getMaxAsync(String column) {
+        return getSingleMetricAsync(column, "MAX", null);
+    }
+
+    public CompletableFuture<Number> getMaxAsync(String column, String sqlWhereFilter) {
+        return getSingleMetricAsync(column, "MAX", sqlWhereFilter);
+    }
+
+    public CompletableFuture<Number> getMinAsync(String column) {
+        return getSingleMetricAsync(column, "MIN", null);
+    }
+
+    public CompletableFuture<Number> getMinAsync(String column, String sqlWhereFilter) {
+        return getSingleMetricAsync(column, "MIN", sqlWhereFilter);
+    }
+
+    public Metrics getMetrics(String column, Metrics.Aggregate... aggregates) {
+        return MySQLA_crud_getMetrics.getMultipleMetrics(pool, config.database, table, column, null, aggregates,
+                null);
+    }
+
+    public Metrics getMetrics(String column, String sqlWhereFilter, Metrics.Aggregate... aggregates) {
+        return MySQLA_crud_getMetrics.getMultipleMetrics(pool, config.database, table, column, sqlWhereFilter,
+                aggregates, null);
+    }
+
+    public void getMetrics(String column, String sqlWhereFilter, OnComplete<Metrics> callback,
+                           Metrics.Aggregate... aggregates) {
+        MySQLA_crud_getMetrics.getMultipleMetricsParallel(pool, executor, config.database, table, column,
+                sqlWhereFilter, aggregates, callback);
+    }
+
+    public CompletableFuture<Metrics> getMetricsAsync(String column, String sqlWhereFilter,
+                                                      Metrics.Aggregate... aggregates) {
+        CompletableFuture<Metrics> future = new CompletableFuture<>();
+        getMetrics(column, sqlWhereFilter, MySQLA_executor.completing(future), aggregates);
+        return future;
+    }
+
+    private CompletableFuture<Number> getSingleMetricAsync(String column, String operation, String sqlWhereFilter) {
+        CompletableFuture<Number> future = new CompletableFuture<>();
+        MySQLA_crud_getMetrics.getMetricsParallel(pool, executor, config.database, table, column, operation,
+                sqlWhereFilter, MySQLA_executor.completing(future));
+        return future;
+    }
+
     //endregion
 
 
@@ -297,11 +533,33 @@ public class MySQLAccess {
     //region Database add overloads
 
     public <T> Object add (T element) {
-        return MySQLA_crud_add.addMain(element, conn, config.database, table, null);
+        return MySQLA_crud_add.addMain(element, pool, config.database, table, null);
     }
 
     public <T> void add (T element, OnComplete<Object> callback) {
-        MySQLA_crud_add.addMainParallel(element, conn, config.database, table, callback);
+        MySQLA_crud_add.addMainParallel(element, pool, executor, config.database, table, callback);
+    }
+
+    public <T> CompletableFuture<Object> addAsync (T element) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        add(element, MySQLA_executor.completing(future));
+        return future;
+    }
+
+    public <T> List<Object> addAll (Collection<T> elements) {
+        return MySQLA_crud_add.addAllMain(elements, pool, config.database, table, config.batchMaxRows,
+                config.batchMaxBytes, null);
+    }
+
+    public <T> void addAll (Collection<T> elements, OnComplete<List<Object>> callback) {
+        MySQLA_crud_add.addAllMainParallel(elements, pool, executor, config.database, table, config.batchMaxRows,
+                config.batchMaxBytes, callback);
+    }
+
+    public <T> CompletableFuture<List<Object>> addAllAsync (Collection<T> elements) {
+        CompletableFuture<List<Object>> future = new CompletableFuture<>();
+        addAll(elements, MySQLA_executor.completing(future));
+        return future;
     }
 
     //endregion
@@ -314,11 +572,32 @@ public class MySQLAccess {
     //region Database update overloads
 
     public <T> Integer update (T element) {
-        return MySQLA_crud_update.updateMain(element, conn, config.database, table, null);
+        return MySQLA_crud_update.updateMain(element, pool, config.database, table, null);
     }
 
     public <T> void update (T element, OnComplete<Integer> callback) {
-        MySQLA_crud_update.updateMainParallel(element, conn, config.database, table, callback);
+        MySQLA_crud_update.updateMainParallel(element, pool, executor, config.database, table, callback);
+    }
+
+    public <T> CompletableFuture<Integer> updateAsync (T element) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        update(element, MySQLA_executor.completing(future));
+        return future;
+    }
+
+    public <T> List<Integer> updateAll (Collection<T> elements) {
+        return MySQLA_crud_update.updateAllMain(elements, pool, config.database, table, config.batchMaxRows, null);
+    }
+
+    public <T> void updateAll (Collection<T> elements, OnComplete<List<Integer>> callback) {
+        MySQLA_crud_update.updateAllMainParallel(elements, pool, executor, config.database, table,
+                config.batchMaxRows, callback);
+    }
+
+    public <T> CompletableFuture<List<Integer>> updateAllAsync (Collection<T> elements) {
+        CompletableFuture<List<Integer>> future = new CompletableFuture<>();
+        updateAll(elements, MySQLA_executor.completing(future));
+        return future;
     }
 
     //endregion
@@ -331,11 +610,17 @@ public class MySQLAccess {
     //region Database delete overloads
 
     public Integer delete (String sqlWhere) {
-        return MySQLA_crud_delete.deleteMain(conn, config.database, table, sqlWhere, null);
+        return MySQLA_crud_delete.deleteMain(pool, config.database, table, sqlWhere, null);
     }
 
     public void delete (String sqlWhere, OnComplete<Integer> callback) {
-        MySQLA_crud_delete.deleteMainParallel(conn, config.database, table, sqlWhere, callback);
+        MySQLA_crud_delete.deleteMainParallel(pool, executor, config.database, table, sqlWhere, callback);
+    }
+
+    public CompletableFuture<Integer> deleteAsync (String sqlWhere) {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        delete(sqlWhere, MySQLA_executor.completing(future));
+        return future;
     }
 
     //endregion
@@ -345,19 +630,33 @@ public class MySQLAccess {
     \======================================================================================================*/
 
     public boolean createTable (String tableName, String[] tableConfig) {
-        return MySQLA_createTable.createTable(conn, config.database, tableName, tableConfig, null);
+        return MySQLA_createTable.createTable(pool, config.database, tableName, tableConfig, null);
     }
 
     public void createTable (String tableName, String[] tableConfig, OnComplete callback) {
-        MySQLA_createTable.createTableParallel(conn, config.database, tableName, tableConfig, callback);
+        MySQLA_createTable.createTableParallel(pool, executor, config.database, tableName, tableConfig, callback);
     }
 
     public boolean dropTable (String tableName) {
-        return MySQLA_createTable.dropTable(conn, config.database, tableName, null);
+        return MySQLA_createTable.dropTable(pool, config.database, tableName, null);
     }
 
     public void dropTable (String tableName, OnComplete callback) {
-        MySQLA_createTable.dropTableParallel(conn, config.database, tableName, callback);
+        MySQLA_createTable.dropTableParallel(pool, executor, config.database, tableName, callback);
+    }
+
+    public CompletableFuture<Boolean> createTableAsync (String tableName, String[] tableConfig) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        MySQLA_createTable.createTableParallel(pool, executor, config.database, tableName, tableConfig,
+                MySQLA_executor.completing(future));
+        return future.thenApply(Objects::nonNull);
+    }
+
+    public CompletableFuture<Boolean> dropTableAsync (String tableName) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        MySQLA_createTable.dropTableParallel(pool, executor, config.database, tableName,
+                MySQLA_executor.completing(future));
+        return future.thenApply(Objects::nonNull);
     }
 
 }
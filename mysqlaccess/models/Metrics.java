@@ -0,0 +1,44 @@
+package com.company.mysqlaccess.models;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+public final class Metrics {
+
+    public enum Aggregate { COUNT, SUM, AVG, MIN, MAX }
+
+    // ---> Aggregates of one column fetched on a single query. Aggregates not requested (and SQL NULL results, i.e.
+    // ---> SUM of no rows) are null. Never modified once built, so cached instances can be shared.
+    public final String column;
+    public final Number count;
+    public final Number sum;
+    public final Number avg;
+    public final Number min;
+    public final Number max;
+    public final Map<Aggregate, Number> values;
+
+    public Metrics(String column, Map<Aggregate, Number> values) {
+        EnumMap<Aggregate, Number> copy = new EnumMap<>(Aggregate.class);
+        copy.putAll(values);
+        this.column = column;
+        this.values = Collections.unmodifiableMap(copy);
+        this.count = copy.get(Aggregate.COUNT);
+        this.sum = copy.get(Aggregate.SUM);
+        this.avg = copy.get(Aggregate.AVG);
+        this.min = copy.get(Aggregate.MIN);
+        this.max = copy.get(Aggregate.MAX);
+    }
+
+    public Number get(Aggregate aggregate) {
+        return values.get(aggregate);
+    }
+
+    @Override
+    public String toString() {
+        return "Metrics{" +
+                "column='" + column + '\'' +
+                ", values=" + values +
+                '}';
+    }
+}
@@ -2,18 +2,35 @@ package com.company.mysqlaccess.models;
 
 import java.time.Instant;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Supplier;
 
 public class MySQLACache {
     public String database;
     public String table;
     public String query;
     public Object data;
+    public ScheduledFuture<?> expiration;
+    public long weight;
+    public volatile long lastAccess;
+    // ---> Time (System.nanoTime) from which the entry is due for a refresh, and query reloading it if enabled.
+    public long refreshAt;
+    public Supplier<?> loader;
+    // ---> Position among the sampled entries of its table, -1 when not cached.
+    public int slot = -1;
+
+    // ---> Primary keys the query filters on (null unless filtering by primary key only) and primary keys present
+    // ---> on the result (null if unknown or not a row list), used to figure out which writes affect this entry.
+    public Set<String> filterKeys;
+    public Set<String> resultKeys;
 
     public MySQLACache(String database, String table, String query, Object data) {
         this.database = database;
         this.table = table;
         this.query = query;
         this.data = data;
+        this.lastAccess = System.nanoTime();
     }
 
     @Override
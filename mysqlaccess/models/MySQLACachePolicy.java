@@ -0,0 +1,43 @@
+package com.company.mysqlaccess.models;
+
+public class MySQLACachePolicy {
+
+    public enum Storage { OBJECTS, COMPACT, OFF_HEAP }
+
+    public int expirationTimeInSeconds;
+    public int maxEntries = 0;
+    public long maxBytes = 0;
+
+    // ---> Refresh entries in the background this many seconds before they expire, serving the current value
+    // ---> meanwhile, and keep serving expired entries up to this many seconds while a refresh is on its way.
+    public int refreshAheadSeconds = 0;
+    public int maxStaleSeconds = 0;
+
+    // ---> Keep results as model objects, or encoded into a compact byte layout (on or off heap) that is decoded
+    // ---> into new objects on every hit. Models with fields of other than basic types are kept as objects.
+    public Storage storage = Storage.OBJECTS;
+
+    public MySQLACachePolicy() {};
+
+    public MySQLACachePolicy(int expirationTimeInSeconds) {
+        this.expirationTimeInSeconds = expirationTimeInSeconds;
+    }
+
+    public MySQLACachePolicy(int expirationTimeInSeconds, int maxEntries, long maxBytes) {
+        this.expirationTimeInSeconds = expirationTimeInSeconds;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "MySQLACachePolicy{" +
+                "expirationTimeInSeconds=" + expirationTimeInSeconds +
+                ", maxEntries=" + maxEntries +
+                ", maxBytes=" + maxBytes +
+                ", refreshAheadSeconds=" + refreshAheadSeconds +
+                ", maxStaleSeconds=" + maxStaleSeconds +
+                ", storage=" + storage +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.company.mysqlaccess.models;
+
+public class MySQLACacheStats {
+    public String database;
+    public String table;
+    public long hits;
+    public long misses;
+    public long evictions;
+    public long loads;
+    public long totalLoadTimeNanos;
+    public long entries;
+    public long weight;
+
+    public MySQLACacheStats(String database, String table, long hits, long misses, long evictions, long loads,
+                            long totalLoadTimeNanos, long entries, long weight) {
+        this.database = database;
+        this.table = table;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.loads = loads;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.entries = entries;
+        this.weight = weight;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return (requests == 0) ? 1.0 : (double) hits / requests;
+    }
+
+    public double getAverageLoadTimeMillis() {
+        return (loads == 0) ? 0.0 : totalLoadTimeNanos / (loads * 1000000.0);
+    }
+
+    @Override
+    public String toString() {
+        return "MySQLACacheStats{" +
+                "database='" + database + '\'' +
+                ", table='" + table + '\'' +
+                ", hits=" + hits +
+                ", misses=" + misses +
+                ", evictions=" + evictions +
+                ", loads=" + loads +
+                ", totalLoadTimeNanos=" + totalLoadTimeNanos +
+                ", entries=" + entries +
+                ", weight=" + weight +
+                '}';
+    }
+}
@@ -2,12 +2,47 @@ package com.company.mysqlaccess.models;
 
 public class MySQLAConfig {
 
+    public enum RejectionPolicy { ABORT, CALLER_RUNS, DISCARD_OLDEST }
+    public enum FillStrategy { JOIN, BATCH, AUTO }
+
     public String ip;
     public int port;
     public String database;
     public String user;
     public String password;
 
+    // ---> Connection pool settings
+    public int poolMinSize = 1;
+    public int poolMaxSize = 10;
+    public int poolTimeoutSeconds = 30;
+    public int poolIdleTimeoutSeconds = 300;
+    public int poolValidationTimeoutSeconds = 2;
+    public int poolValidationIdleSeconds = 5;
+    public int statementCacheSize = 50;
+
+    // ---> Query cache settings (shared by every instance, zero means unbounded)
+    public int cacheMaxEntries = 10000;
+    public long cacheMaxBytes = 64L * 1024 * 1024;
+
+    // ---> Table details kept on disk between runs (null disables), checked against the database in background
+    public String schemaSnapshotPath = null;
+
+    // ---> Batch operations settings
+    public int batchMaxRows = 1000;
+    public int batchMaxBytes = 1024 * 1024;
+
+    // ---> GetFill settings. JOIN fetches everything on a single left join, BATCH loads main rows first and then the
+    // ---> joined rows by primary key, in parallel chunks of up to 'fillBatchSize' keys. AUTO picks one per call.
+    public FillStrategy fillStrategy = FillStrategy.JOIN;
+    public int fillBatchSize = 500;
+
+    // ---> Asynchronous operations executor settings
+    public int executorThreads = 10;
+    public int executorQueueSize = 1000;
+    public int executorKeepAliveSeconds = 10;
+    public RejectionPolicy executorRejectionPolicy = RejectionPolicy.CALLER_RUNS;
+    public boolean executorVirtualThreads = false;
+
     public MySQLAConfig() {};
 
     public MySQLAConfig(String ip, int port, String database, String user, String password) {
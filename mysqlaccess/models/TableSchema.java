@@ -0,0 +1,75 @@
+package com.company.mysqlaccess.models;
+
+import java.util.*;
+
+public final class TableSchema {
+
+    // ---> Details of a single table as fetched at one point in time. Never modified once built, a table fetched
+    // ---> again gets a new instance, so it can be shared between threads and compared by identity.
+    public final String database;
+    public final String table;
+    public final String primaryKey;
+    // ---> Whether the primary key spans more than one column, in which case 'primaryKey' is only its first column.
+    public final boolean compositePrimaryKey;
+    public final List<ColumnProps> columns;
+    public final List<String> columnNames;
+    public final List<String> numericColumns;
+    public final List<String> updatableColumns;
+    public final List<String> updatableColumnsWithPrimaryKey;
+
+    private final Map<String, Integer> columnIndexes;
+    private final String[] columnTypes;
+
+    public TableSchema(String database, String table, String primaryKey, List<ColumnProps> columns,
+                       List<String> columnTypes, List<String> numericColumns, List<String> updatableColumns) {
+        this.database = database;
+        this.table = table;
+        this.primaryKey = primaryKey;
+        this.columns = List.copyOf(columns);
+        this.numericColumns = List.copyOf(numericColumns);
+        this.updatableColumns = List.copyOf(updatableColumns);
+        this.compositePrimaryKey = columns.stream().filter(x -> x.key != null && x.key.contains("PRI")).count() > 1;
+        this.columnTypes = columnTypes.toArray(new String[0]);
+
+        String[] names = new String[columns.size()];
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int x = 0; x < names.length; x++) {
+            names[x] = columns.get(x).field;
+            indexes.putIfAbsent(names[x], x);
+        }
+        this.columnNames = List.of(names);
+        this.columnIndexes = Collections.unmodifiableMap(indexes);
+
+        List<String> withPrimaryKey = new ArrayList<>(updatableColumns);
+        if (primaryKey != null && !withPrimaryKey.contains(primaryKey)) withPrimaryKey.add(primaryKey);
+        this.updatableColumnsWithPrimaryKey = List.copyOf(withPrimaryKey);
+    }
+
+    public int indexOf(String column) {
+        Integer index = (column == null) ? null : columnIndexes.get(column);
+        return (index == null) ? -1 : index;
+    }
+
+    public boolean hasColumn(String column) {
+        return indexOf(column) != -1;
+    }
+
+    public String getColumnType(String column) {
+        int index = indexOf(column);
+        return (index == -1) ? null : columnTypes[index];
+    }
+
+    public String getColumnType(int index) {
+        return columnTypes[index];
+    }
+
+    @Override
+    public String toString() {
+        return "TableSchema{" +
+                "database='" + database + '\'' +
+                ", table='" + table + '\'' +
+                ", primaryKey='" + primaryKey + '\'' +
+                ", columns=" + columnNames +
+                '}';
+    }
+}
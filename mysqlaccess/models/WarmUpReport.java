@@ -0,0 +1,61 @@
+package com.company.mysqlaccess.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WarmUpReport {
+    public String database;
+    public long schemaTimeNanos;
+    public long totalTimeNanos;
+    public List<Item> items = new ArrayList<>();
+
+    // ---> Outcome for one model and table, with the time spent on each step.
+    public static class Item {
+        public String model;
+        public String table;
+        public boolean successful;
+        public String error;
+        public long correlationTimeNanos;
+        public long mapperTimeNanos;
+        public long statementTimeNanos;
+
+        public Item(String model, String table) {
+            this.model = model;
+            this.table = table;
+        }
+
+        @Override
+        public String toString() {
+            return "Item{" +
+                    "model='" + model + '\'' +
+                    ", table='" + table + '\'' +
+                    ", successful=" + successful +
+                    (error == null ? "" : ", error='" + error + '\'') +
+                    ", correlationTimeNanos=" + correlationTimeNanos +
+                    ", mapperTimeNanos=" + mapperTimeNanos +
+                    ", statementTimeNanos=" + statementTimeNanos +
+                    '}';
+        }
+    }
+
+    public WarmUpReport(String database) {
+        this.database = database;
+    }
+
+    public boolean isSuccessful() {
+        for (Item item : items) {
+            if (!item.successful) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpReport{" +
+                "database='" + database + '\'' +
+                ", schemaTimeNanos=" + schemaTimeNanos +
+                ", totalTimeNanos=" + totalTimeNanos +
+                ", items=" + items +
+                '}';
+    }
+}